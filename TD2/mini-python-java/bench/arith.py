@@ -0,0 +1,17 @@
+# Collatz sequences: dominated by small integer arithmetic
+
+def collatz(n):
+    k = 0
+    for i in range(500):
+        if n != 1:
+            if n % 2 == 0:
+                n = n // 2
+            else:
+                n = 3 * n + 1
+            k = k + 1
+    return k
+
+s = 0
+for n in range(40000):
+    s = s + collatz(n + 1) * 7 - n % 13
+print(s)
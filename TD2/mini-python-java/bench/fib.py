@@ -0,0 +1,7 @@
+# naive recursive Fibonacci: dominated by function calls
+
+def fib(n):
+    if n < 2: return n
+    return fib(n-1) + fib(n-2)
+
+print(fib(27))
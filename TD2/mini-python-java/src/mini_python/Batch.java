@@ -0,0 +1,123 @@
+package mini_python;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/* Batch mode: several programs run in the same JVM, which is only started
+   once. It is enabled when Main is given several files, or a manifest with
+   --manifest=FILE, which lists files one per line (blank lines and lines
+   starting with # are ignored); the files of the manifest come after the
+   others.
+
+   Each program runs as it would alone (see Main.run), with its own Run,
+   hence its own functions and output, which is kept in memory. Up to
+   --jobs=N programs (by default, one per processor) run at once, on a pool
+   of threads.
+
+   The results are printed in the order of the files, each as soon as it
+   and the ones before it are done: for each file, a line
+
+     ==> FILE (exit STATUS) <==
+
+   followed by the output of the program. With --outdir=DIR, the output is
+   written to the file DIR/FILE instead, with the extension .out in place
+   of .py, and only the lines above are printed. The report of --memo goes
+   to stderr, as it does for a single program.
+
+   The exit status of the batch is 0 when all the programs succeed, and 1
+   otherwise. */
+
+class Batch {
+
+  // the number of programs run at once
+  static int jobs = Runtime.getRuntime().availableProcessors();
+  // where the outputs are written, if not on stdout
+  static String outdir = null;
+
+  // the result of a program
+  static final class Result {
+    final int status;
+    final Output out = new Output();
+    final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    Result(String file) {
+      this.status = Main.run(file, out, new PrintStream(err, true));
+    }
+  }
+
+  static int run(List<String> files, String manifest) throws IOException {
+    files = new ArrayList<String>(files);
+    if (manifest != null)
+      for (String line: Files.readAllLines(Paths.get(manifest))) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#"))
+          files.add(line);
+      }
+    ExecutorService pool = Executors.newFixedThreadPool(jobs, r -> {
+      Thread t = new Thread(r);
+      t.setDaemon(true);
+      return t;
+    });
+    ArrayList<Future<Result>> results = new ArrayList<Future<Result>>();
+    for (String file: files)
+      results.add(pool.submit(() -> new Result(file)));
+    Output stdout = Output.stdout();
+    int status = 0;
+    for (int i = 0; i < files.size(); i++) {
+      String file = files.get(i);
+      Result r;
+      try {
+        r = results.get(i).get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new Error("batch interrupted");
+      }
+      stdout.println("==> " + file + " (exit " + r.status + ") <==");
+      if (outdir == null)
+        stdout.print(r.out);
+      else
+        write(output(file), r.out);
+      stdout.flush();
+      System.err.print(r.err);
+      if (r.status != 0)
+        status = 1;
+    }
+    pool.shutdown();
+    return status;
+  }
+
+  // DIR/FILE, with the extension .out, where the output of FILE goes
+  static Path output(String file) {
+    Path p = Paths.get(file).normalize();
+    if (p.isAbsolute())
+      p = p.getRoot().relativize(p);
+    String name = p.getFileName().toString();
+    if (name.endsWith(".py"))
+      name = name.substring(0, name.length() - 3);
+    Path out = Paths.get(outdir);
+    // a path going up stays in DIR
+    for (Path x: p.getParent() == null ? Paths.get("") : p.getParent())
+      out = out.resolve(x.toString().equals("..") ? "_" : x.toString());
+    return out.resolve(name + ".out");
+  }
+
+  static void write(Path p, Output out) throws IOException {
+    if (p.getParent() != null)
+      Files.createDirectories(p.getParent());
+    try (OutputStream os = Files.newOutputStream(p)) {
+      Output o = new Output(os, Output.charset());
+      o.print(out);
+      o.flush();
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package mini_python;
+
+/* A binary operation of the closure engine (see ClosureCompiler), which
+   specializes itself on the types of its operands.
+
+   A node starts uninitialized and only records the kind of operands it
+   sees. Once it has seen the same kind WARMUP times in a row, it rewrites
+   itself into the variant for that kind (integers, strings or lists),
+   which checks the classes of the operands and computes the result
+   directly, without going through Interp.binop. If this guard fails, the
+   node falls back for good to the generic operation.
+
+   `and` and `or` are not compiled to such nodes, since they do not
+   evaluate their second operand. */
+
+class BinopNode implements Code {
+
+  static final int WARMUP = 3;
+
+  // the states of a node; the variants are named after their operands
+  static final int UNINITIALIZED = 0, INT = 1, STRING = 2, LIST = 3,
+    GENERIC = 4;
+
+  final Binop op;
+  final Code c1, c2;
+  int state = UNINITIALIZED;
+  int seen = GENERIC; // the kind of the last operands, while uninitialized
+  int runs = 0; // how many times in a row it was seen
+
+  BinopNode(Binop op, Code c1, Code c2) {
+    this.op = op;
+    this.c1 = c1;
+    this.c2 = c2;
+  }
+
+  /* Only the variant for integers, by far the most frequent, is in `eval`
+     and `test`, which are inlined into the code of the other closures; the
+     others are in `slow`, which keeps this code small for the JVM. */
+  @Override
+  public Value eval(Value[] frame) {
+    Value v1 = c1.eval(frame), v2 = c2.eval(frame);
+    if (state == INT && v1 instanceof Vint && v2 instanceof Vint)
+      return ints(((Vint) v1).n, ((Vint) v2).n);
+    return slow(v1, v2);
+  }
+
+  // a comparison of integers gives its result without building a Vbool
+  @Override
+  public boolean test(Value[] frame) {
+    Value v1 = c1.eval(frame), v2 = c2.eval(frame);
+    if (!(state == INT && v1 instanceof Vint && v2 instanceof Vint))
+      return slow(v1, v2).isTrue();
+    long i1 = ((Vint) v1).n, i2 = ((Vint) v2).n;
+    switch (op) {
+    case Beq:
+      return i1 == i2;
+    case Bneq:
+      return i1 != i2;
+    case Blt:
+      return i1 < i2;
+    case Ble:
+      return i1 <= i2;
+    case Bgt:
+      return i1 > i2;
+    case Bge:
+      return i1 >= i2;
+    default:
+      return ints(i1, i2).isTrue();
+    }
+  }
+
+  // the other variants, and the generic operation
+  Value slow(Value v1, Value v2) {
+    switch (state) {
+    case INT:
+      break;
+    case STRING:
+      if (v1 instanceof Vstring && v2 instanceof Vstring)
+        return strings((Vstring) v1, (Vstring) v2);
+      break;
+    case LIST:
+      if (v1 instanceof Vlist && v2 instanceof Vlist)
+        return lists((Vlist) v1, (Vlist) v2);
+      break;
+    case GENERIC:
+      return Interp.binop(op, v1, v2);
+    default:
+      profile(v1, v2);
+      return Interp.binop(op, v1, v2);
+    }
+    // the guard failed
+    state = GENERIC;
+    return Interp.binop(op, v1, v2);
+  }
+
+  // records the kind of the operands, and specializes the node when stable
+  void profile(Value v1, Value v2) {
+    int k = kind(v1, v2);
+    if (k != seen) {
+      seen = k;
+      runs = 0;
+    }
+    if (++runs >= WARMUP)
+      state = k;
+  }
+
+  // the variant for the given operands, GENERIC when there is none
+  int kind(Value v1, Value v2) {
+    if (v1 instanceof Vint && v2 instanceof Vint)
+      return INT;
+    switch (op) {
+    case Bsub:
+    case Bmul:
+    case Bdiv:
+    case Bmod:
+      return GENERIC; // only defined on integers
+    default:
+    }
+    if (v1 instanceof Vstring && v2 instanceof Vstring)
+      return STRING;
+    if (v1 instanceof Vlist && v2 instanceof Vlist)
+      return LIST;
+    return GENERIC;
+  }
+
+  Value ints(long i1, long i2) {
+    switch (op) {
+    case Badd:
+      return Vint.add(i1, i2);
+    case Bsub:
+      return Vint.sub(i1, i2);
+    case Bmul:
+      return Vint.mul(i1, i2);
+    case Bdiv:
+      return Vint.div(i1, i2);
+    case Bmod:
+      return Vint.mod(i1, i2);
+    default:
+      return compare(Long.compare(i1, i2));
+    }
+  }
+
+  Value strings(Vstring s1, Vstring s2) {
+    switch (op) {
+    case Badd:
+      return Vstring.concat(s1, s2);
+    case Beq:
+      return new Vbool(s1.equalString(s2));
+    case Bneq:
+      return new Vbool(!s1.equalString(s2));
+    default:
+      return compare(s1.s().compareTo(s2.s()));
+    }
+  }
+
+  Value lists(Vlist l1, Vlist l2) {
+    switch (op) {
+    case Badd:
+      return Vlist.concat(l1, l2);
+    case Beq:
+      return new Vbool(l1 == l2 || l1.equalList(l2));
+    case Bneq:
+      return new Vbool(l1 != l2 && !l1.equalList(l2));
+    default:
+      return compare(l1.compareTo(l2));
+    }
+  }
+
+  // the result of a comparison operator, given the sign of the comparison
+  Value compare(int c) {
+    switch (op) {
+    case Beq:
+      return new Vbool(c == 0);
+    case Bneq:
+      return new Vbool(c != 0);
+    case Blt:
+      return new Vbool(c < 0);
+    case Ble:
+      return new Vbool(c <= 0);
+    case Bgt:
+      return new Vbool(c > 0);
+    default:
+      return new Vbool(c >= 0);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package mini_python;
+
+/* Bytecode of Mini-Python.
+
+   The code of each function (and of the global block) is a `Chunk`: an
+   array of ints, where each instruction is an opcode followed by its
+   operands, a pool of constants, and the number of local slots it needs.
+   The operand stack of the VM holds values only. The list iterated by the
+   k-th `for` loop of a chunk is kept in a hidden local slot, after the
+   variables, and its current index in an array of ints of the frame. */
+
+class Bytecode {
+  // opcodes; the comment gives the operands and the effect on the stack
+  static final int
+    CONST = 0,        // k           -- push consts[k]
+    LOAD = 1,         // x           -- push locals[x], or fail if unbound
+    STORE = 2,        // x           -- pop into locals[x]
+    POP = 3,          //             -- pop
+    ADD = 4,          //             -- v1 v2 => v1 + v2
+    SUB = 5,
+    MUL = 6,
+    DIV = 7,
+    MOD = 8,
+    EQ = 9,
+    NEQ = 10,
+    LT = 11,
+    LE = 12,
+    GT = 13,
+    GE = 14,
+    NEG = 15,         //             -- v => -v
+    NOT = 16,         //             -- v => not v
+    JUMP = 17,        // l           -- go to l
+    JUMP_IF_FALSE = 18, // l         -- pop, and go to l if false
+    JUMP_IF_FALSE_OR_POP = 19, // l  -- go to l if false, pop otherwise
+    JUMP_IF_TRUE_OR_POP = 20, // l   -- go to l if true, pop otherwise
+    LIST = 21,        // n           -- v1 ... vn => [v1, ..., vn]
+    ASLIST = 22,      //             -- check that the top is a list
+    GET = 23,         //             -- l i => l[i]
+    CHECK_INDEX = 24, //             -- check that l i is a valid l[i]
+    SET = 25,         //             -- l i v => , with l[i] = v
+    LEN = 26,         //             -- v => len(v)
+    RANGE = 27,       //             -- n => list(range(n))
+    CALL = 28,        // f n         -- v1 ... vn => f(v1, ..., vn)
+    RETURN = 29,      //             -- return the top of the stack
+    RETURN_NONE = 30, //             -- return None
+    PRINT = 31,       //             -- pop and print
+    FOR_PREP = 32,    // k           -- pop a list into loop k
+    FOR_NEXT = 33,    // k x l       -- next element of loop k into locals[x],
+                      //                or go to l when there is none
+    FAIL = 34,        // k           -- raise an error with message consts[k]
+    HALT = 35,        //             -- end of the global block
+    TAIL_CALL = 36,   // n           -- v1 ... vn => , and restart the
+                      //                chunk with arguments v1 ... vn
+    APPEND = 37,      //             -- l v => None, appending v to l
+    MAP = 38;         // f           -- l => pmap(f, l), run sequentially
+
+  static final String[] names = {
+    "CONST", "LOAD", "STORE", "POP", "ADD", "SUB", "MUL", "DIV", "MOD",
+    "EQ", "NEQ", "LT", "LE", "GT", "GE", "NEG", "NOT", "JUMP",
+    "JUMP_IF_FALSE", "JUMP_IF_FALSE_OR_POP", "JUMP_IF_TRUE_OR_POP",
+    "LIST", "ASLIST", "GET", "CHECK_INDEX", "SET", "LEN", "RANGE", "CALL",
+    "RETURN", "RETURN_NONE", "PRINT", "FOR_PREP", "FOR_NEXT", "FAIL", "HALT",
+    "TAIL_CALL", "APPEND", "MAP"
+  };
+
+  // number of operands of each opcode
+  static int operands(int op) {
+    switch (op) {
+    case CONST: case LOAD: case STORE: case JUMP: case JUMP_IF_FALSE:
+    case JUMP_IF_FALSE_OR_POP: case JUMP_IF_TRUE_OR_POP: case LIST:
+    case FOR_PREP: case FAIL: case TAIL_CALL: case MAP:
+      return 1;
+    case CALL:
+      return 2;
+    case FOR_NEXT:
+      return 3;
+    default:
+      return 0;
+    }
+  }
+
+  // a human-readable listing of a chunk
+  static String disassemble(Chunk c) {
+    StringBuilder b = new StringBuilder();
+    b.append(String.format("%s: %d params, %d locals, %d loops, stack %d\n",
+        c.name, c.params.length, c.frameSize, c.loops, c.maxStack));
+    int pc = 0;
+    while (pc < c.code.length) {
+      int op = c.code[pc];
+      int n = operands(op);
+      b.append(String.format(n == 0 ? "%5d  %s" : "%5d  %-20s", pc, names[op]));
+      for (int i = 1; i <= n; i++)
+        b.append(String.format(" %4d", c.code[pc + i]));
+      switch (op) {
+      case CONST:
+        b.append("  ; ").append(show(c.consts[c.code[pc + 1]]));
+        break;
+      case FAIL:
+        b.append("  ; ").append(c.consts[c.code[pc + 1]]);
+        break;
+      case LOAD: case STORE:
+        b.append("  ; ").append(c.names[c.code[pc + 1]]);
+        break;
+      case FOR_NEXT:
+        b.append("  ; ").append(c.names[c.code[pc + 2]]);
+        break;
+      case CALL: case MAP:
+        b.append("  ; ").append(c.callees[c.code[pc + 1]].name);
+        break;
+      default:
+      }
+      b.append("\n");
+      pc += 1 + n;
+    }
+    return b.toString();
+  }
+
+  static String show(Value v) {
+    return v instanceof Vstring ? "\"" + v + "\"" : v.toString();
+  }
+}
+
+// the compiled code of a function, or of the global block
+class Chunk {
+  final String name;
+  int[] params;      // slots of the formal parameters
+  int frameSize;     // slots of the variables (hidden loop slots follow)
+  int loops;         // number of `for` loops
+  int maxStack;      // maximal depth of the operand stack
+  int[] code;
+  Value[] consts;
+  String[] names;    // variable names, for error messages
+  Chunk[] callees;   // the functions called by CALL and MAP
+
+  Chunk(String name) {
+    this.name = name;
+  }
+}
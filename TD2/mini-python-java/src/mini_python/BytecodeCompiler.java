@@ -0,0 +1,347 @@
+package mini_python;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static mini_python.Bytecode.*;
+
+/* Compilation of the syntax tree to bytecode (see Bytecode and VM).
+
+   One compiler is used per chunk. Expressions leave their value on the
+   operand stack, statements leave the stack as they found it. Errors that
+   Interp reports before evaluating anything (unknown function, bad arity)
+   are compiled to a FAIL instruction, so that they are raised only if the
+   call is executed. The checks of Eget and Sset are separate instructions,
+   so that errors are raised in the same order as with Interp. */
+
+class BytecodeCompiler implements Visitor {
+
+  final Chunk chunk;
+  final HashMap<String, Chunk> functions; // all the chunks of the program
+  final Map<String, Def> defs; // their definitions
+
+  int[] code = new int[64];
+  int pc = 0;
+  int depth = 0; // current depth of the operand stack
+
+  final ArrayList<Value> consts = new ArrayList<Value>();
+  final HashMap<Object, Integer> constIndex = new HashMap<Object, Integer>();
+  final ArrayList<Chunk> callees = new ArrayList<Chunk>();
+  final String[] names;
+
+  BytecodeCompiler(Chunk chunk, int frameSize,
+                   HashMap<String, Chunk> functions, Map<String, Def> defs) {
+    this.chunk = chunk;
+    this.functions = functions;
+    this.defs = defs;
+    this.names = new String[frameSize];
+    chunk.frameSize = frameSize;
+  }
+
+  /* compiles a whole program; the result contains the chunks of the
+     functions, in order, followed by the chunk of the global block. When
+     several functions have the same name, only the last one is compiled,
+     since it is the one calls refer to (see Run.functions). */
+  static Chunk[] compile(File f) {
+    HashMap<String, Chunk> functions = new HashMap<String, Chunk>();
+    Map<String, Def> defs = Run.functions(f);
+    Chunk[] chunks = new Chunk[defs.size() + 1];
+    int n = 0;
+    for (Def d: f.l) {
+      if (defs.get(d.f.id) != d)
+        continue;
+      Chunk c = new Chunk(d.f.id);
+      c.params = new int[d.l.length];
+      int i = 0;
+      for (Ident x: d.l)
+        c.params[i++] = x.slot;
+      functions.put(d.f.id, c);
+    }
+    for (Def d: f.l) {
+      if (defs.get(d.f.id) != d)
+        continue;
+      Chunk c = functions.get(d.f.id);
+      chunks[n++] = c;
+      BytecodeCompiler bc = new BytecodeCompiler(c, d.frameSize, functions, defs);
+      for (Ident x: d.l)
+        bc.variable(x);
+      d.s.accept(bc);
+      bc.emit(RETURN_NONE, 0);
+      bc.finish();
+    }
+    Chunk main = new Chunk("<toplevel>");
+    main.params = new int[0];
+    BytecodeCompiler bc = new BytecodeCompiler(main, f.frameSize, functions, defs);
+    f.s.accept(bc);
+    bc.emit(HALT, 0);
+    bc.finish();
+    chunks[n] = main;
+    return chunks;
+  }
+
+  void finish() {
+    chunk.code = Arrays.copyOf(code, pc);
+    chunk.consts = consts.toArray(new Value[0]);
+    chunk.callees = callees.toArray(new Chunk[0]);
+    chunk.names = names;
+  }
+
+  // emission of an instruction; `delta` is its effect on the stack depth
+  void emit(int op, int delta, int... operands) {
+    if (pc + 1 + operands.length > code.length)
+      code = Arrays.copyOf(code, 2 * code.length + operands.length);
+    code[pc++] = op;
+    for (int x: operands)
+      code[pc++] = x;
+    depth += delta;
+    if (depth > chunk.maxStack)
+      chunk.maxStack = depth;
+  }
+
+  // the position of the last operand emitted, to patch a jump target
+  int hole() {
+    return pc - 1;
+  }
+  void patch(int hole) {
+    code[hole] = pc;
+  }
+
+  int constant(Object key, Value v) {
+    Integer k = constIndex.get(key);
+    if (k == null) {
+      k = consts.size();
+      consts.add(v);
+      constIndex.put(key, k);
+    }
+    return k;
+  }
+
+  void fail(String msg) {
+    emit(FAIL, 1, constant("fail " + msg, new Vstring(msg)));
+  }
+
+  int variable(Ident x) {
+    names[x.slot] = x.id;
+    return x.slot;
+  }
+
+  // constants
+
+  public void visit(Cnone c) {
+    emit(CONST, 1, constant(c, new Vnone()));
+  }
+  public void visit(Cbool c) {
+    emit(CONST, 1, constant(c.b, new Vbool(c.b)));
+  }
+  public void visit(Cstring c) {
+    emit(CONST, 1, constant("string " + c.s, new Vstring(c.s)));
+  }
+  public void visit(Cint c) {
+    emit(CONST, 1, constant(c.n, new Vint(c.n)));
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+    e.c.accept(this);
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    e.e1.accept(this);
+    switch (e.op) {
+    case Band:
+    case Bor:
+      emit(e.op == Binop.Band ? JUMP_IF_FALSE_OR_POP : JUMP_IF_TRUE_OR_POP,
+           -1, 0);
+      int end = hole();
+      e.e2.accept(this);
+      patch(end);
+      return;
+    default:
+    }
+    e.e2.accept(this);
+    switch (e.op) {
+    case Badd: emit(ADD, -1); break;
+    case Bsub: emit(SUB, -1); break;
+    case Bmul: emit(MUL, -1); break;
+    case Bdiv: emit(DIV, -1); break;
+    case Bmod: emit(MOD, -1); break;
+    case Beq: emit(EQ, -1); break;
+    case Bneq: emit(NEQ, -1); break;
+    case Blt: emit(LT, -1); break;
+    case Ble: emit(LE, -1); break;
+    case Bgt: emit(GT, -1); break;
+    case Bge: emit(GE, -1); break;
+    default:
+    }
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    e.e.accept(this);
+    emit(e.op == Unop.Uneg ? NEG : NOT, 0);
+  }
+
+  @Override
+  public void visit(Eident e) {
+    emit(LOAD, 1, variable(e.x));
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    switch (e.f.id) {
+    case "len":
+    case "list":
+    case "range":
+      if (e.l.length != 1) {
+        fail("bad arity");
+        return;
+      }
+      e.l[0].accept(this);
+      if (e.f.id == "len")
+        emit(LEN, 0);
+      else if (e.f.id == "range")
+        emit(RANGE, 0);
+      return;
+    case "append":
+      if (e.l.length != 2) {
+        fail("bad arity");
+        return;
+      }
+      e.l[0].accept(this);
+      e.l[1].accept(this);
+      emit(APPEND, -1);
+      return;
+    case "pmap":
+      Chunk g;
+      try {
+        if (e.l.length != 2)
+          throw new Error("bad arity");
+        g = functions.get(Interp.mapped(defs, e.l[0]).f.id);
+      } catch (Error err) {
+        fail(err.getMessage());
+        return;
+      }
+      e.l[1].accept(this);
+      emit(MAP, 0, callee(g));
+      return;
+    default:
+      Chunk f = functions.get(e.f.id);
+      if (f == null) {
+        fail("unbound function " + e.f.id);
+        return;
+      }
+      if (e.l.length != f.params.length) {
+        fail("bad arity");
+        return;
+      }
+      for (Expr e1: e.l)
+        e1.accept(this);
+      emit(CALL, 1 - e.l.length, callee(f), e.l.length);
+    }
+  }
+
+  // the index of f in the callees of the chunk
+  int callee(Chunk f) {
+    int k = callees.indexOf(f);
+    if (k < 0) {
+      k = callees.size();
+      callees.add(f);
+    }
+    return k;
+  }
+
+  @Override
+  public void visit(Eget e) {
+    e.e1.accept(this);
+    emit(ASLIST, 0);
+    e.e2.accept(this);
+    emit(GET, -1);
+  }
+
+  @Override
+  public void visit(Elist e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+    emit(LIST, 1 - e.l.length, e.l.length);
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    s.e.accept(this);
+    emit(JUMP_IF_FALSE, -1, 0);
+    int otherwise = hole();
+    s.s1.accept(this);
+    emit(JUMP, 0, 0);
+    int end = hole();
+    patch(otherwise);
+    s.s2.accept(this);
+    patch(end);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    if (s.tail) {
+      Ecall e = (Ecall) s.e;
+      for (Expr e1: e.l)
+        e1.accept(this);
+      emit(TAIL_CALL, -e.l.length, e.l.length);
+      return;
+    }
+    s.e.accept(this);
+    emit(RETURN, -1);
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    s.e.accept(this);
+    emit(STORE, -1, variable(s.x));
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    s.e.accept(this);
+    emit(PRINT, -1);
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    for (Stmt st: s.l)
+      st.accept(this);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    s.e.accept(this);
+    int k = chunk.loops++;
+    emit(FOR_PREP, -1, k);
+    int loop = pc;
+    emit(FOR_NEXT, 0, k, variable(s.x), 0);
+    int end = hole();
+    s.s.accept(this);
+    emit(JUMP, 0, loop);
+    patch(end);
+  }
+
+  @Override
+  public void visit(Seval s) {
+    s.e.accept(this);
+    emit(POP, -1);
+  }
+
+  @Override
+  public void visit(Sset s) {
+    s.e1.accept(this);
+    emit(ASLIST, 0);
+    s.e2.accept(this);
+    emit(CHECK_INDEX, 0);
+    s.e3.accept(this);
+    emit(SET, -3);
+  }
+}
@@ -0,0 +1,413 @@
+package mini_python;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/* A minimal writer of JVM class files, used by Jit.
+
+   We produce class files of version 49 (Java 5): they are checked by the
+   type-inferencing verifier, so that we do not have to compute stack map
+   frames. Only the few constructs needed by Jit are supported. */
+
+class ClassFile {
+  static final int VERSION = 49;
+
+  static final int
+    ACC_PUBLIC = 0x0001, ACC_PRIVATE = 0x0002, ACC_STATIC = 0x0008,
+    ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+  // the constant pool
+  final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+  final DataOutputStream poolOut = new DataOutputStream(pool);
+  final HashMap<String, Integer> entries = new HashMap<String, Integer>();
+  int poolCount = 1;
+
+  final String name;
+  final ArrayList<byte[]> fields = new ArrayList<byte[]>();
+  final ArrayList<byte[]> methods = new ArrayList<byte[]>();
+
+  ClassFile(String name) {
+    this.name = name;
+  }
+
+  // adds an entry to the constant pool, unless it is already there
+  private int entry(String key, int size, int tag, Object... data) {
+    Integer i = entries.get(key);
+    if (i != null)
+      return i;
+    try {
+      poolOut.writeByte(tag);
+      for (Object o: data) {
+        if (o instanceof String)
+          poolOut.writeUTF((String) o);
+        else if (o instanceof Long)
+          poolOut.writeLong((Long) o);
+        else
+          poolOut.writeShort((Integer) o);
+      }
+    } catch (IOException e) {
+      throw new Unsupported("constant too large"); // from writeUTF
+    }
+    i = poolCount;
+    poolCount += size;
+    entries.put(key, i);
+    return i;
+  }
+
+  int utf8(String s) {
+    return entry("U" + s, 1, 1, s);
+  }
+  int cls(String internalName) {
+    return entry("C" + internalName, 1, 7, utf8(internalName));
+  }
+  int string(String s) {
+    return entry("S" + s, 1, 8, utf8(s));
+  }
+  int longConst(long n) {
+    return entry("J" + n, 2, 5, n);
+  }
+  int nameAndType(String n, String desc) {
+    return entry("N" + n + " " + desc, 1, 12, utf8(n), utf8(desc));
+  }
+  int field(String owner, String n, String desc) {
+    return entry("F" + owner + "." + n + " " + desc, 1, 9,
+                 cls(owner), nameAndType(n, desc));
+  }
+  int method(String owner, String n, String desc) {
+    return entry("M" + owner + "." + n + desc, 1, 10,
+                 cls(owner), nameAndType(n, desc));
+  }
+  int imethod(String owner, String n, String desc) {
+    return entry("I" + owner + "." + n + desc, 1, 11,
+                 cls(owner), nameAndType(n, desc));
+  }
+
+  void addField(int access, String n, String desc) {
+    ByteArrayOutputStream b = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(b);
+    try {
+      out.writeShort(access);
+      out.writeShort(utf8(n));
+      out.writeShort(utf8(desc));
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    fields.add(b.toByteArray());
+  }
+
+  // starts a method; its code is added by `MethodWriter.end`
+  MethodWriter addMethod(int access, String n, String desc) {
+    return new MethodWriter(this, access, n, desc);
+  }
+
+  byte[] toBytes(String superName, String... interfaces) {
+    int superIndex = cls(superName);
+    int thisIndex = cls(name);
+    int[] itfs = new int[interfaces.length];
+    for (int i = 0; i < interfaces.length; i++)
+      itfs[i] = cls(interfaces[i]);
+    int codeAttr = utf8("Code");
+    ByteArrayOutputStream b = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(b);
+    try {
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(VERSION);
+      out.writeShort(poolCount);
+      pool.writeTo(out);
+      out.writeShort(ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisIndex);
+      out.writeShort(superIndex);
+      out.writeShort(itfs.length);
+      for (int i: itfs)
+        out.writeShort(i);
+      out.writeShort(fields.size());
+      for (byte[] f: fields)
+        out.write(f);
+      out.writeShort(methods.size());
+      for (byte[] m: methods) {
+        // the index of the "Code" attribute name is only known now
+        m[8] = (byte) (codeAttr >> 8);
+        m[9] = (byte) codeAttr;
+        out.write(m);
+      }
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return b.toByteArray();
+  }
+}
+
+// a position in the code, possibly not known yet
+class Label {
+  int pos = -1;
+  int depth = -1; // stack depth at this position
+  final ArrayList<Integer> jumps = new ArrayList<Integer>(); // positions of the branch instructions
+}
+
+/* The code of a method.
+
+   Each instruction is given its effect on the stack depth (in words), so
+   that the maximal depth can be computed. After an unconditional jump,
+   a return or a throw, the depth is undefined until the next label. */
+class MethodWriter {
+  // opcodes
+  static final int
+    ACONST_NULL = 0x01, ICONST_0 = 0x03, LCONST_0 = 0x09, BIPUSH = 0x10,
+    SIPUSH = 0x11, LDC_W = 0x13, LDC2_W = 0x14, ILOAD = 0x15, LLOAD = 0x16,
+    ALOAD = 0x19, ISTORE = 0x36, LSTORE = 0x37, ASTORE = 0x3a, AALOAD = 0x32,
+    AASTORE = 0x53, POP = 0x57, POP2 = 0x58, DUP = 0x59, SWAP = 0x5f,
+    LADD = 0x61, LSUB = 0x65, LMUL = 0x69, LDIV = 0x6d, LREM = 0x71,
+    LNEG = 0x75, LSHR = 0x7b, LAND = 0x7f, IXOR = 0x82, LXOR = 0x83, IINC = 0x84,
+    LCMP = 0x94, IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c,
+    IFGT = 0x9d, IFLE = 0x9e, IF_ICMPGE = 0xa2, GOTO = 0xa7, ARETURN = 0xb0,
+    RETURN = 0xb1, GETSTATIC = 0xb2, PUTSTATIC = 0xb3, GETFIELD = 0xb4,
+    INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8,
+    INVOKEINTERFACE = 0xb9, NEW = 0xbb, ANEWARRAY = 0xbd, ARRAYLENGTH = 0xbe,
+    ATHROW = 0xbf, CHECKCAST = 0xc0, INSTANCEOF = 0xc1, WIDE = 0xc4,
+    IFNONNULL = 0xc7;
+
+  final ClassFile cf;
+  final int access;
+  final String name, desc;
+
+  byte[] code = new byte[256];
+  int pc = 0;
+  int depth = 0, maxStack = 0;
+  final ArrayList<Label> labels = new ArrayList<Label>();
+
+  MethodWriter(ClassFile cf, int access, String name, String desc) {
+    this.cf = cf;
+    this.access = access;
+    this.name = name;
+    this.desc = desc;
+  }
+
+  void u1(int b) {
+    if (pc == code.length)
+      code = Arrays.copyOf(code, 2 * code.length);
+    code[pc++] = (byte) b;
+  }
+  void u2(int s) {
+    u1(s >> 8);
+    u1(s);
+  }
+
+  void stack(int delta) {
+    if (depth < 0)
+      return; // dead code
+    depth += delta;
+    if (depth > maxStack)
+      maxStack = depth;
+  }
+
+  // an instruction without operands
+  void op(int op, int delta) {
+    u1(op);
+    stack(delta);
+  }
+
+  // an instruction with a constant pool index as operand
+  void op2(int op, int index, int delta) {
+    u1(op);
+    u2(index);
+    stack(delta);
+  }
+
+  // the end of a basic block: the depth is known again at the next label
+  void unreachable() {
+    depth = -1;
+  }
+
+  void iconst(int n) {
+    if (n >= -1 && n <= 5)
+      op(ICONST_0 + n, 1);
+    else if (n >= -128 && n < 128) {
+      op(BIPUSH, 1);
+      u1(n);
+    } else if (n == (short) n) {
+      op(SIPUSH, 1);
+      u2(n);
+    } else
+      throw new Unsupported("constant too large");
+  }
+  void lconst(long n) {
+    if (n == 0 || n == 1)
+      op(LCONST_0 + (int)n, 2);
+    else
+      op2(LDC2_W, cf.longConst(n), 2);
+  }
+  void sconst(String s) {
+    op2(LDC_W, cf.string(s), 1);
+  }
+  void cconst(String internalName) {
+    op2(LDC_W, cf.cls(internalName), 1);
+  }
+
+  // loads and stores of local variables
+  void local(int op, int x, int delta) {
+    if (x > 255) {
+      u1(WIDE);
+      op(op, delta);
+      u2(x);
+    } else {
+      op(op, delta);
+      u1(x);
+    }
+  }
+  void aload(int x) {
+    local(ALOAD, x, 1);
+  }
+  void astore(int x) {
+    local(ASTORE, x, -1);
+  }
+  void iload(int x) {
+    local(ILOAD, x, 1);
+  }
+  void istore(int x) {
+    local(ISTORE, x, -1);
+  }
+  void lload(int x) {
+    local(LLOAD, x, 2);
+  }
+  void lstore(int x) {
+    local(LSTORE, x, -2);
+  }
+  void iinc(int x, int n) {
+    if (x > 255) {
+      u1(WIDE);
+      u1(IINC);
+      u2(x);
+      u2(n);
+    } else {
+      u1(IINC);
+      u1(x);
+      u1(n);
+    }
+  }
+
+  // size in words of the values described by a method descriptor
+  static int words(String desc) {
+    int n = 0;
+    for (int i = 0; i < desc.length(); i++) {
+      char c = desc.charAt(i);
+      if (c == 'J' || c == 'D')
+        n += 2;
+      else if (c == 'L') {
+        n++;
+        i = desc.indexOf(';', i);
+      } else if (c == '[') {
+        n++;
+        while (desc.charAt(i) == '[')
+          i++;
+        if (desc.charAt(i) == 'L')
+          i = desc.indexOf(';', i);
+      } else if (c != 'V')
+        n++;
+    }
+    return n;
+  }
+  static int argWords(String desc) {
+    return words(desc.substring(1, desc.indexOf(')')));
+  }
+  static int resultWords(String desc) {
+    return words(desc.substring(desc.indexOf(')') + 1));
+  }
+
+  void invokestatic(String owner, String n, String d) {
+    op2(INVOKESTATIC, cf.method(owner, n, d), resultWords(d) - argWords(d));
+  }
+  void invokevirtual(String owner, String n, String d) {
+    op2(INVOKEVIRTUAL, cf.method(owner, n, d),
+        resultWords(d) - argWords(d) - 1);
+  }
+  void invokespecial(String owner, String n, String d) {
+    op2(INVOKESPECIAL, cf.method(owner, n, d),
+        resultWords(d) - argWords(d) - 1);
+  }
+  void invokeinterface(String owner, String n, String d) {
+    op2(INVOKEINTERFACE, cf.imethod(owner, n, d),
+        resultWords(d) - argWords(d) - 1);
+    u1(argWords(d) + 1);
+    u1(0);
+  }
+  void getstatic(String owner, String n, String d) {
+    op2(GETSTATIC, cf.field(owner, n, d), words(d));
+  }
+  void putstatic(String owner, String n, String d) {
+    op2(PUTSTATIC, cf.field(owner, n, d), -words(d));
+  }
+  void getfield(String owner, String n, String d) {
+    op2(GETFIELD, cf.field(owner, n, d), words(d) - 1);
+  }
+
+  // jumps; `delta` is the effect of the branch instruction itself
+  void jump(int op, Label l, int delta) {
+    if (depth < 0)
+      return; // dead code, which must not jump to a label never placed
+    l.jumps.add(pc);
+    op(op, delta);
+    u2(0);
+    if (l.depth < 0 && depth >= 0)
+      l.depth = depth;
+    if (op == GOTO)
+      unreachable();
+  }
+
+  void place(Label l) {
+    l.pos = pc;
+    if (depth < 0)
+      depth = l.depth;
+    else
+      l.depth = depth;
+    labels.add(l);
+  }
+
+  void end(int maxLocals) {
+    // resolve the jumps
+    for (Label l: labels)
+      for (int j: l.jumps) {
+        int off = l.pos - j;
+        if (off != (short) off)
+          throw new Unsupported("method too large");
+        code[j + 1] = (byte) (off >> 8);
+        code[j + 2] = (byte) off;
+      }
+    if (pc > 65535)
+      throw new Unsupported("method too large");
+    ByteArrayOutputStream b = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(b);
+    try {
+      out.writeShort(access);
+      out.writeShort(cf.utf8(name));
+      out.writeShort(cf.utf8(desc));
+      out.writeShort(1);
+      out.writeShort(0); // index of "Code", patched by ClassFile.toBytes
+      out.writeInt(12 + pc);
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(pc);
+      out.write(code, 0, pc);
+      out.writeShort(0);
+      out.writeShort(0);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    cf.methods.add(b.toByteArray());
+  }
+}
+
+// raised when some code cannot be compiled to JVM bytecode
+class Unsupported extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  Unsupported(String msg) {
+    super(msg);
+  }
+}
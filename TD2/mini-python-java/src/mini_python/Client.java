@@ -0,0 +1,71 @@
+package mini_python;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/* The client of Server: `Client SOCKET FILE...` runs the programs in the
+   files on the server listening at SOCKET, one after the other, and prints
+   their output and errors as they come. Its exit status is that of the
+   last program which failed, 0 if none did, and 2 when the server cannot
+   be reached.
+
+   It only loads a few classes of the JDK, so that it starts faster than
+   Main; it still pays for the start of a JVM, which the script
+   minipython-client, speaking the same protocol, does not. */
+
+public class Client {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: Client SOCKET FILE...");
+      System.exit(2);
+    }
+    int status = 0;
+    try (SocketChannel server = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server.connect(UnixDomainSocketAddress.of(args[0]));
+      OutputStream requests = Channels.newOutputStream(server);
+      DataInputStream frames =
+        new DataInputStream(new BufferedInputStream(Channels.newInputStream(server)));
+      byte[] data = new byte[1 << 13];
+      for (int i = 1; i < args.length; i++) {
+        // the server may run in another directory
+        String file = Paths.get(args[i]).toAbsolutePath().toString();
+        requests.write((file + "\n").getBytes(StandardCharsets.UTF_8));
+        requests.flush();
+        while (true) {
+          int stream = frames.readUnsignedByte();
+          if (stream == Server.EXIT) {
+            int s = frames.readInt();
+            if (s != 0)
+              status = s;
+            break;
+          }
+          PrintStream out = stream == Server.STDOUT ? System.out : System.err;
+          for (int n = frames.readInt(); n > 0; ) {
+            int k = frames.read(data, 0, Math.min(n, data.length));
+            if (k < 0)
+              throw new EOFException();
+            out.write(data, 0, k);
+            n -= k;
+          }
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      System.out.flush();
+      System.err.println("server " + args[0] + ": " + e.getMessage());
+      System.exit(2);
+    }
+    System.exit(status);
+  }
+}
@@ -0,0 +1,490 @@
+package mini_python;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/* A second execution engine: closure compilation.
+
+   Instead of walking the syntax tree with a visitor at run time, we
+   translate it once into a tree of Java closures. Each expression becomes
+   a `Code` that returns its value directly, and each statement becomes an
+   `Exec`. Variables are read and written in the frame given to the
+   closure, using the slots computed by Resolver, and function calls are
+   linked to their callee when the program is loaded.
+
+   Apart from the type feedback of binary operations (see BinopNode),
+   nothing is stored in the compiled code at run time, so the same code
+   can be run by several calls at once (recursion needs no special care).
+
+   Calls go through a method handle (see Function.invoke), so that the JVM
+   compiles each function on its own, rather than inlining a recursive
+   function into itself. */
+
+// a compiled expression
+interface Code {
+  Value eval(Value[] frame);
+
+  // its value as a condition, which BinopNode computes without a Vbool
+  default boolean test(Value[] frame) {
+    return eval(frame).isTrue();
+  }
+}
+
+/* A compiled statement.
+
+   `exec` returns null when the statement completes normally, and the
+   value to be returned when a `return` was executed. */
+interface Exec {
+  Value exec(Value[] frame);
+}
+
+/* A compiled function definition.
+
+   The frame of a call has d.frameSize slots, followed by one slot per
+   parameter where a tail call to the function itself (see Resolver) puts
+   its arguments. The body then returns Interp.TAIL_CALL, and `call` runs it
+   again in the same frame. */
+class Function {
+  // `call`, as a method handle
+  static final MethodHandle CALL;
+  static {
+    try {
+      CALL = MethodHandles.lookup().findVirtual(Function.class, "call",
+        MethodType.methodType(Value.class, Value[].class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  final Def d;
+  final int[] params; // the slots of the formal parameters
+  Exec body; // set once all functions are known, for mutual recursion
+  // read from a field, hence not a constant for the JVM (see `invoke`)
+  final MethodHandle handle = CALL;
+
+  Function(Def d) {
+    this.d = d;
+    this.params = new int[d.l.length];
+    int i = 0;
+    for (Ident x: d.l)
+      this.params[i++] = x.slot;
+  }
+
+  Value[] frame() {
+    return new Value[d.frameSize + params.length];
+  }
+
+  /* The compiled code calls a function through its handle, which the JVM
+     does not inline, since it is not a constant. Otherwise, the JVM inlines
+     the closures of a small recursive function such as bench/fib.py into
+     each other, then into themselves through the recursive calls, and
+     compiling this code takes longer than the run it speeds up. */
+  Value invoke(Value[] frame) {
+    try {
+      return (Value) handle.invokeExact(this, frame);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new Error(e); // `call` throws no checked exception
+    }
+  }
+
+  Value call(Value[] frame) {
+    while (true) {
+      Value r = body.exec(frame);
+      if (r != Interp.TAIL_CALL)
+        return r == null ? new Vnone() : r;
+      Arrays.fill(frame, 0, d.frameSize, null);
+      for (int i = 0; i < params.length; i++)
+        frame[params[i]] = frame[d.frameSize + i];
+    }
+  }
+}
+
+class ClosureCompiler implements Visitor {
+
+  // the compiled functions of the program
+  final HashMap<String, Function> functions = new HashMap<String, Function>();
+  final Run run;
+
+  ClosureCompiler(Run run) {
+    this.run = run;
+  }
+
+  /* As for Interp, the visitor methods store their result in a field.
+     This is only done at compile time; the compiled code does not use it. */
+  Code code = null;
+  Exec exec = null;
+  Function current = null; // the function being compiled
+
+  Code compile(Expr e) {
+    e.accept(this);
+    Code c = code;
+    code = null;
+    return c;
+  }
+
+  Exec compile(Stmt s) {
+    s.accept(this);
+    Exec x = exec;
+    exec = null;
+    return x;
+  }
+
+  Code[] compile(Expr[] l) {
+    Code[] c = new Code[l.length];
+    int i = 0;
+    for (Expr e: l)
+      c[i++] = compile(e);
+    return c;
+  }
+
+  // compiles and runs a whole program
+  static void run(Run run, File f) {
+    ClosureCompiler cc = new ClosureCompiler(run);
+    for (Def d: f.l)
+      cc.functions.put(d.f.id, new Function(d));
+    for (Function fn: cc.functions.values()) {
+      cc.current = fn;
+      fn.body = cc.compile(fn.d.s);
+    }
+    cc.current = null;
+    Value r = cc.compile(f.s).exec(new Value[f.frameSize]);
+    // a `return` at toplevel fails, as it does with Interp
+    if (r != null)
+      throw new Return(r);
+  }
+
+  // constants are immutable values, hence built only once
+
+  public void visit(Cnone c) {
+    Value v = new Vnone();
+    this.code = frame -> v;
+  }
+  public void visit(Cbool c) {
+    Value v = new Vbool(c.b);
+    this.code = frame -> v;
+  }
+  public void visit(Cstring c) {
+    Value v = new Vstring(c.s);
+    this.code = frame -> v;
+  }
+  public void visit(Cint c) {
+    Value v = new Vint(c.n);
+    this.code = frame -> v;
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+    e.c.accept(this);
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    Code c1 = compile(e.e1), c2 = compile(e.e2);
+    switch (e.op) {
+    case Band:
+      this.code = new Code() {
+        public Value eval(Value[] frame) {
+          Value v1 = c1.eval(frame);
+          return v1.isTrue() ? c2.eval(frame) : v1;
+        }
+        public boolean test(Value[] frame) {
+          return c1.test(frame) && c2.test(frame);
+        }
+      };
+      break;
+    case Bor:
+      this.code = new Code() {
+        public Value eval(Value[] frame) {
+          Value v1 = c1.eval(frame);
+          return v1.isFalse() ? c2.eval(frame) : v1;
+        }
+        public boolean test(Value[] frame) {
+          return c1.test(frame) || c2.test(frame);
+        }
+      };
+      break;
+    default:
+      this.code = new BinopNode(e.op, c1, c2);
+    }
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    Code c = compile(e.e);
+    switch (e.op) {
+    case Unot:
+      this.code = new Code() {
+        public Value eval(Value[] frame) {
+          return new Vbool(!c.test(frame));
+        }
+        public boolean test(Value[] frame) {
+          return !c.test(frame);
+        }
+      };
+      break;
+    case Uneg:
+      this.code = frame -> Interp.neg(c.eval(frame));
+      break;
+    }
+  }
+
+  @Override
+  public void visit(Eident e) {
+    int slot = e.x.slot;
+    String id = e.x.id;
+    this.code = frame -> {
+      Value v = frame[slot];
+      if (v == null)
+        throw new Error("unbound variable " + id);
+      return v;
+    };
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    switch (e.f.id) {
+    case "len":
+    case "list":
+    case "range":
+      if (e.l.length != 1) {
+        this.code = frame -> { throw new Error("bad arity"); };
+        return;
+      }
+      Code c = compile(e.l[0]);
+      if (e.f.id == "len")
+        this.code = frame -> Interp.len(c.eval(frame));
+      else if (e.f.id == "list")
+        this.code = c;
+      else
+        this.code = frame -> Interp.range(c.eval(frame));
+      return;
+    case "append":
+      if (e.l.length != 2) {
+        this.code = frame -> { throw new Error("bad arity"); };
+        return;
+      }
+      Code c1 = compile(e.l[0]), c2 = compile(e.l[1]);
+      this.code = frame -> {
+        Value l = c1.eval(frame);
+        return Interp.append(l, c2.eval(frame));
+      };
+      return;
+    case "pmap":
+      // run sequentially
+      Function g;
+      try {
+        if (e.l.length != 2)
+          throw new Error("bad arity");
+        g = functions.get(Interp.mapped(run.functions, e.l[0]).f.id);
+      } catch (Error err) {
+        String msg = err.getMessage();
+        this.code = frame -> { throw new Error(msg); };
+        return;
+      }
+      Code cl = compile(e.l[1]);
+      this.code = frame -> Interp.map(cl.eval(frame).asList(), x -> {
+        Value[] callee = g.frame();
+        callee[g.params[0]] = x;
+        return g.invoke(callee);
+      });
+      return;
+    default:
+      // errors are only reported if the call is executed
+      Function fn = functions.get(e.f.id);
+      if (fn == null) {
+        String id = e.f.id;
+        this.code = frame -> { throw new Error("unbound function " + id); };
+        return;
+      }
+      if (e.l.length != fn.params.length) {
+        this.code = frame -> { throw new Error("bad arity"); };
+        return;
+      }
+      Code[] args = compile(e.l);
+      int[] params = fn.params;
+      // the arguments go straight into the frame of the callee, without a
+      // loop for the usual numbers of arguments
+      switch (args.length) {
+      case 0:
+        this.code = frame -> fn.invoke(fn.frame());
+        return;
+      case 1: {
+        Code a0 = args[0];
+        int p0 = params[0];
+        this.code = frame -> {
+          Value[] callee = fn.frame();
+          callee[p0] = a0.eval(frame);
+          return fn.invoke(callee);
+        };
+        return;
+      }
+      case 2: {
+        Code a0 = args[0], a1 = args[1];
+        int p0 = params[0], p1 = params[1];
+        this.code = frame -> {
+          Value[] callee = fn.frame();
+          callee[p0] = a0.eval(frame);
+          callee[p1] = a1.eval(frame);
+          return fn.invoke(callee);
+        };
+        return;
+      }
+      default:
+        this.code = frame -> {
+          Value[] callee = fn.frame();
+          for (int i = 0; i < args.length; i++)
+            callee[params[i]] = args[i].eval(frame);
+          return fn.invoke(callee);
+        };
+      }
+    }
+  }
+
+  @Override
+  public void visit(Eget e) {
+    Code c1 = compile(e.e1), c2 = compile(e.e2);
+    this.code = frame -> {
+      Vlist v = c1.eval(frame).asList();
+      long i = c2.eval(frame).asInt();
+      if (i < 0 || i >= v.size())
+        throw new Error("index out of bounds");
+      return v.get((int)i);
+    };
+  }
+
+  @Override
+  public void visit(Elist e) {
+    Code[] c = compile(e.l);
+    this.code = frame -> {
+      Value[] l = new Value[c.length];
+      for (int i = 0; i < c.length; i++)
+        l[i] = c[i].eval(frame);
+      return new Vlist(l);
+    };
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    Code c = compile(s.e);
+    Exec x1 = compile(s.s1);
+    if (s.s2 instanceof Sblock && ((Sblock) s.s2).l.length == 0) {
+      this.exec = frame -> c.test(frame) ? x1.exec(frame) : null;
+      return;
+    }
+    Exec x2 = compile(s.s2);
+    this.exec = frame -> c.test(frame) ? x1.exec(frame) : x2.exec(frame);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    if (s.tail) {
+      Code[] args = compile(((Ecall) s.e).l);
+      int size = current.d.frameSize;
+      this.exec = frame -> {
+        for (int i = 0; i < args.length; i++)
+          frame[size + i] = args[i].eval(frame);
+        return Interp.TAIL_CALL;
+      };
+      return;
+    }
+    Code c = compile(s.e);
+    this.exec = frame -> c.eval(frame);
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    Code c = compile(s.e);
+    int slot = s.x.slot;
+    this.exec = frame -> {
+      frame[slot] = c.eval(frame);
+      return null;
+    };
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    Code c = compile(s.e);
+    Output out = run.out;
+    this.exec = frame -> {
+      out.println(c.eval(frame));
+      return null;
+    };
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    Exec[] l = new Exec[s.l.length];
+    int i = 0;
+    for (Stmt st: s.l)
+      l[i++] = compile(st);
+    // the blocks of one or two statements need no loop
+    if (l.length == 1) {
+      this.exec = l[0];
+      return;
+    }
+    if (l.length == 2) {
+      Exec x1 = l[0], x2 = l[1];
+      this.exec = frame -> {
+        Value r = x1.exec(frame);
+        return r != null ? r : x2.exec(frame);
+      };
+      return;
+    }
+    this.exec = frame -> {
+      for (Exec x: l) {
+        Value r = x.exec(frame);
+        if (r != null)
+          return r;
+      }
+      return null;
+    };
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    Code c = compile(s.e);
+    int slot = s.x.slot;
+    Exec body = compile(s.s);
+    this.exec = frame -> {
+      Vlist l = c.eval(frame).asList();
+      for (int i = 0; i < l.size(); i++) {
+        frame[slot] = l.get(i);
+        Value r = body.exec(frame);
+        if (r != null)
+          return r;
+      }
+      return null;
+    };
+  }
+
+  @Override
+  public void visit(Seval s) {
+    Code c = compile(s.e);
+    this.exec = frame -> {
+      c.eval(frame);
+      return null;
+    };
+  }
+
+  @Override
+  public void visit(Sset s) {
+    Code c1 = compile(s.e1), c2 = compile(s.e2), c3 = compile(s.e3);
+    this.exec = frame -> {
+      Vlist v = c1.eval(frame).asList();
+      long i = c2.eval(frame).asInt();
+      if (i < 0 || i >= v.size())
+        throw new Error("index out of bounds");
+      v.set((int)i, c3.eval(frame));
+      return null;
+    };
+  }
+}
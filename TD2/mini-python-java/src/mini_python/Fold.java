@@ -0,0 +1,341 @@
+package mini_python;
+
+import java.util.HashMap;
+
+/* Constant folding and partial evaluation.
+
+   This pass runs after parsing, before Resolver, and builds a new tree
+   where:
+
+   - operations whose operands are constants are replaced by their result;
+   - `and` and `or` whose first operand is a constant are simplified;
+   - `if` statements with a constant condition are replaced by the branch
+     that is taken;
+   - calls to simple functions (see Purity) whose arguments are constants
+     are replaced by their result, obtained by folding the body of the
+     function, with the parameters replaced by the arguments. The results
+     are cached, since a function may call another one several times with
+     the same arguments, and the evaluation of a call stops after MAX_STEPS
+     statements (the call is then left as it is), since the number of
+     calls can still be exponential in the size of the code.
+
+   An operation that fails (division by zero, bad operand types) is left
+   as it is, so that the error is still raised at run time, if the code is
+   executed. The same goes for a call whose evaluation fails. Lists are
+   never constants, since they can be modified. */
+
+class Fold implements Visitor {
+
+  // longer strings are not built at load time, to keep the code small
+  static final int MAX_STRING = 1 << 12;
+  // the most statements run at load time by a call of the program
+  static final int MAX_STEPS = 1 << 16;
+
+  final Purity purity;
+
+  // as for Interp, the visitor methods store their result in a field
+  Expr expr = null;
+  Stmt stmt = null;
+
+  /* when evaluating the body of a function: the values of its variables,
+     and the value returned, once a `return` has been executed */
+  HashMap<String, Constant> env = null;
+  Constant returned = null;
+  // the statements left to the call of the program being evaluated
+  int steps = 0;
+  // the results of the calls evaluated so far
+  final HashMap<Memo.Key, Constant> results = new HashMap<Memo.Key, Constant>();
+
+  Fold(Purity purity) {
+    this.purity = purity;
+  }
+
+  static File fold(File f) {
+    Fold fo = new Fold(new Purity(f));
+    Def[] l = new Def[f.l.length];
+    for (int i = 0; i < l.length; i++)
+      l[i] = new Def(f.l[i].f, f.l[i].l, fo.fold(f.l[i].s));
+    return new File(l, fo.fold(f.s));
+  }
+
+  Expr fold(Expr e) {
+    e.accept(this);
+    Expr r = expr;
+    expr = null;
+    return r;
+  }
+
+  Stmt fold(Stmt s) {
+    s.accept(this);
+    Stmt r = stmt;
+    stmt = null;
+    return r;
+  }
+
+  Expr[] fold(Expr[] l) {
+    Expr[] r = new Expr[l.length];
+    for (int i = 0; i < l.length; i++)
+      r[i] = fold(l[i]);
+    return r;
+  }
+
+  // conversions between constants and values
+
+  static Constant constant(Expr e) {
+    return e instanceof Ecst ? ((Ecst) e).c : null;
+  }
+
+  static Value value(Constant c) {
+    if (c instanceof Cbool)
+      return new Vbool(((Cbool) c).b);
+    if (c instanceof Cint)
+      return new Vint(((Cint) c).n);
+    if (c instanceof Cstring)
+      return new Vstring(((Cstring) c).s);
+    return new Vnone();
+  }
+
+  // null when v cannot be a constant
+  static Constant constant(Value v) {
+    if (v instanceof Vnone)
+      return Constant.None;
+    if (v instanceof Vbool)
+      return new Cbool(((Vbool) v).b);
+    if (v instanceof Vint)
+      return new Cint(((Vint) v).n);
+    if (v instanceof Vstring && ((Vstring) v).length <= MAX_STRING)
+      return new Cstring(((Vstring) v).s());
+    return null;
+  }
+
+  /* the result of an operation on constants, or null when it fails
+     (the error is then raised at run time) */
+  static Expr result(Value v) {
+    Constant c = constant(v);
+    return c == null ? null : new Ecst(c);
+  }
+
+  // constants are left as they are
+
+  public void visit(Cnone c) {
+  }
+  public void visit(Cbool c) {
+  }
+  public void visit(Cstring c) {
+  }
+  public void visit(Cint c) {
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+    this.expr = e;
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    Expr e1 = fold(e.e1), e2 = fold(e.e2);
+    Constant c1 = constant(e1), c2 = constant(e2);
+    Expr r = null;
+    switch (e.op) {
+    case Band:
+      if (c1 != null)
+        r = value(c1).isTrue() ? e2 : e1;
+      break;
+    case Bor:
+      if (c1 != null)
+        r = value(c1).isFalse() ? e2 : e1;
+      break;
+    default:
+      if (c1 != null && c2 != null) {
+        try {
+          r = result(Interp.binop(e.op, value(c1), value(c2)));
+        } catch (Error err) {
+          r = null;
+        }
+      }
+    }
+    this.expr = r != null ? r : new Ebinop(e.op, e1, e2);
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    Expr e1 = fold(e.e);
+    Constant c = constant(e1);
+    Expr r = null;
+    if (c != null) {
+      if (e.op == Unop.Unot)
+        r = new Ecst(new Cbool(value(c).isFalse()));
+      else if (c instanceof Cint && ((Cint) c).n != Long.MIN_VALUE)
+        r = new Ecst(new Cint(-((Cint) c).n));
+    }
+    this.expr = r != null ? r : new Eunop(e.op, e1);
+  }
+
+  @Override
+  public void visit(Eident e) {
+    Constant c = env == null ? null : env.get(e.x.id);
+    this.expr = c != null ? new Ecst(c) : e;
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    Expr[] l = fold(e.l);
+    Constant[] args = new Constant[l.length];
+    int i = 0;
+    for (Expr e1: l)
+      if ((args[i++] = constant(e1)) == null) {
+        this.expr = new Ecall(e.f, l);
+        return;
+      }
+    Constant r = null;
+    switch (e.f.id) {
+    case "len":
+      if (args.length == 1)
+        try {
+          r = constant(Interp.len(value(args[0])));
+        } catch (Error err) {
+          r = null;
+        }
+      break;
+    case "list":
+    case "range":
+    case "append":
+    case "pmap":
+      // builtins, even if a function has the same name
+      break;
+    default:
+      Def d = purity.functions.get(e.f.id);
+      if (d != null && purity.isSimple(d) && d.l.length == args.length)
+        r = call(d, args);
+    }
+    this.expr = r != null ? new Ecst(r) : new Ecall(e.f, l);
+  }
+
+  // evaluates a call to a simple function; null when it fails
+  Constant call(Def d, Constant[] args) {
+    Value[] values = new Value[args.length];
+    for (int i = 0; i < args.length; i++)
+      values[i] = value(args[i]);
+    Memo.Key k = new Memo.Key(d, values);
+    Constant r = results.get(k);
+    if (r != null)
+      return r;
+    HashMap<String, Constant> env = this.env;
+    Constant returned = this.returned;
+    // a call in the code, rather than in a call being evaluated
+    if (env == null)
+      steps = MAX_STEPS;
+    this.env = new HashMap<String, Constant>();
+    this.returned = null;
+    try {
+      int i = 0;
+      for (Ident x: d.l)
+        this.env.put(x.id, args[i++]);
+      if (!exec(d.s))
+        return null;
+      r = this.returned != null ? this.returned : Constant.None;
+      results.put(k, r);
+      return r;
+    } finally {
+      this.env = env;
+      this.returned = returned;
+    }
+  }
+
+  /* executes a statement of a simple function, updating `env` and
+     `returned`; false when this cannot be done at load time */
+  boolean exec(Stmt s) {
+    if (--steps < 0)
+      return false;
+    if (s instanceof Sblock) {
+      for (Stmt st: ((Sblock) s).l)
+        if (!exec(st))
+          return false;
+        else if (returned != null)
+          break;
+      return true;
+    }
+    if (s instanceof Sassign) {
+      Constant c = constant(fold(((Sassign) s).e));
+      if (c == null)
+        return false;
+      env.put(((Sassign) s).x.id, c);
+      return true;
+    }
+    if (s instanceof Sif) {
+      Constant c = constant(fold(((Sif) s).e));
+      if (c == null)
+        return false;
+      return exec(value(c).isTrue() ? ((Sif) s).s1 : ((Sif) s).s2);
+    }
+    if (s instanceof Sreturn) {
+      returned = constant(fold(((Sreturn) s).e));
+      return returned != null;
+    }
+    if (s instanceof Seval)
+      return constant(fold(((Seval) s).e)) != null;
+    return false;
+  }
+
+  @Override
+  public void visit(Eget e) {
+    this.expr = new Eget(fold(e.e1), fold(e.e2));
+  }
+
+  @Override
+  public void visit(Elist e) {
+    this.expr = new Elist(fold(e.l));
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    Expr e = fold(s.e);
+    Constant c = constant(e);
+    if (c != null)
+      this.stmt = fold(value(c).isTrue() ? s.s1 : s.s2);
+    else
+      this.stmt = new Sif(e, fold(s.s1), fold(s.s2));
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    this.stmt = new Sreturn(fold(s.e));
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    this.stmt = new Sassign(s.x, fold(s.e));
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    this.stmt = new Sprint(fold(s.e));
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    Stmt[] l = new Stmt[s.l.length];
+    for (int i = 0; i < l.length; i++)
+      l[i] = fold(s.l[i]);
+    this.stmt = new Sblock(l);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    this.stmt = new Sfor(s.x, fold(s.e), fold(s.s));
+  }
+
+  @Override
+  public void visit(Seval s) {
+    this.stmt = new Seval(fold(s.e));
+  }
+
+  @Override
+  public void visit(Sset s) {
+    this.stmt = new Sset(fold(s.e1), fold(s.e2), fold(s.e3));
+  }
+}
@@ -0,0 +1,348 @@
+package mini_python;
+
+import java.util.Arrays;
+
+import static mini_python.Bytecode.*;
+
+/* The virtual machine of --stack=SIZE, which runs the same bytecode as VM
+   without using the Java stack for Mini-Python calls: the frames of the
+   calls in progress are objects kept in a growable array, so the
+   depth of the recursion is only limited by a memory budget (see
+   Main.stackSize). The instructions of a frame are run by `execute`, which
+   returns to the loop of `resume` on a call or a return, after switching
+   to the frame where execution goes on. Within `execute`, the code and the
+   locals of the frame do not change, so the JVM can keep them in
+   registers, as it does in VM.
+
+   This costs an extra method entry per call and return, and makes loops
+   slower, so it is only used when asked for.
+
+   The operand stack is shared by all the calls; each call only uses the
+   part of it above the stack pointer at the time of the call. The locals
+   of a call are in their own array, as in the other engines.
+
+   Since the whole state of the execution is in the HeapVM object, execution
+   can be suspended after a given number of steps and resumed
+   later: `run` uses this to check for interruptions regularly. */
+
+class HeapVM {
+
+  // the state of a call in progress
+  static class Frame {
+    final Chunk c;
+    final Value[] locals;
+    final int[] index; // the indices of the `for` loops
+    int pc = 0; // saved when calling, or when suspended
+
+    Frame(Chunk c, Value[] locals) {
+      this.c = c;
+      this.locals = locals;
+      this.index = c.loops == 0 ? null : new int[c.loops];
+    }
+  }
+
+  // estimated size in bytes of a frame, used for the memory budget
+  static long cost(Chunk c) {
+    return 64 + 8 * (c.frameSize + 2 * c.loops + c.maxStack);
+  }
+
+  // how many steps are run between two checks for interruption
+  static final long SLICE = 1 << 20;
+
+  Value[] stack = new Value[1024];
+  int sp = 0;
+  Frame[] frames = new Frame[64];
+  int fp = 0; // the number of frames; the current one is frames[fp - 1]
+  final long budget; // the memory budget of the frames, in bytes
+  final Output out; // the output of `print`
+  long used = 0;
+  boolean halted = false;
+  long steps; // the steps left before suspending, see `resume`
+  Value result = null; // the value returned by the global block, if any
+
+  HeapVM(Chunk main, long budget, Output out) {
+    this.budget = budget;
+    this.out = out;
+    push(new Frame(main, new Value[main.frameSize + main.loops]));
+  }
+
+  static void run(Run run, File f) {
+    Chunk[] chunks = BytecodeCompiler.compile(f);
+    HeapVM vm = new HeapVM(chunks[chunks.length - 1], Main.stackSize, run.out);
+    while (!vm.resume(SLICE))
+      if (Thread.interrupted())
+        throw new Error("interrupted");
+    // a `return` at toplevel fails, as it does with Interp
+    if (vm.result != null)
+      throw new Return(vm.result);
+  }
+
+  /* pmap(g, l): each call runs in a VM of its own, with what remains of
+     the memory budget */
+  Value map(Chunk g, Vlist l) {
+    return Interp.map(l, x -> {
+      HeapVM vm = new HeapVM(g, budget - used, out);
+      vm.frames[0].locals[g.params[0]] = x;
+      while (!vm.resume(SLICE))
+        if (Thread.interrupted())
+          throw new Error("interrupted");
+      return vm.result;
+    });
+  }
+
+  void push(Frame f) {
+    used += cost(f.c);
+    if (used > budget)
+      throw new Error("stack overflow");
+    if (fp == frames.length)
+      frames = Arrays.copyOf(frames, 2 * fp);
+    frames[fp++] = f;
+    if (sp + f.c.maxStack > stack.length)
+      stack = Arrays.copyOf(stack, 2 * (sp + f.c.maxStack));
+  }
+
+  /* runs the program until it has made `steps` jumps and calls, and tells
+     whether the execution is over; otherwise, it can be resumed by calling
+     `resume` again. Since every loop jumps and every recursion calls, a
+     step is a bounded amount of work. */
+  boolean resume(long steps) {
+    this.steps = steps;
+    while (!halted)
+      if (!execute(frames[fp - 1]))
+        return false;
+    return true;
+  }
+
+  /* runs frame f, which is the current one, until it calls, returns or
+     halts, and then returns true; or returns false when suspended */
+  boolean execute(Frame f) {
+    final Chunk c = f.c;
+    final int[] code = c.code;
+    final Value[] consts = c.consts;
+    final Value[] locals = f.locals;
+    final int[] index = f.index;
+    final Value[] stack = this.stack;
+    int sp = this.sp;
+    int pc = f.pc;
+    long steps = this.steps;
+    Value v1, v2;
+    while (true) {
+      switch (code[pc++]) {
+      case CONST:
+        stack[sp++] = consts[code[pc++]];
+        break;
+      case LOAD: {
+        int x = code[pc++];
+        Value v = locals[x];
+        if (v == null)
+          throw new Error("unbound variable " + c.names[x]);
+        stack[sp++] = v;
+        break;
+      }
+      case STORE:
+        locals[code[pc++]] = stack[--sp];
+        break;
+      case POP:
+        sp--;
+        break;
+      case ADD:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Badd, v1, v2);
+        break;
+      case SUB:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bsub, v1, v2);
+        break;
+      case MUL:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bmul, v1, v2);
+        break;
+      case DIV:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bdiv, v1, v2);
+        break;
+      case MOD:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bmod, v1, v2);
+        break;
+      case EQ:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Beq, v1, v2);
+        break;
+      case NEQ:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bneq, v1, v2);
+        break;
+      case LT:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Blt, v1, v2);
+        break;
+      case LE:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Ble, v1, v2);
+        break;
+      case GT:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bgt, v1, v2);
+        break;
+      case GE:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bge, v1, v2);
+        break;
+      case NEG:
+        stack[sp - 1] = Interp.neg(stack[sp - 1]);
+        break;
+      case NOT:
+        stack[sp - 1] = new Vbool(stack[sp - 1].isFalse());
+        break;
+      case JUMP:
+        pc = code[pc];
+        // loops jump backwards: a place to suspend the execution
+        if (--steps < 0) {
+          f.pc = pc;
+          this.sp = sp;
+          this.steps = steps;
+          return false;
+        }
+        break;
+      case JUMP_IF_FALSE:
+        if (stack[--sp].isFalse())
+          pc = code[pc];
+        else
+          pc++;
+        break;
+      case JUMP_IF_FALSE_OR_POP:
+        if (stack[sp - 1].isFalse())
+          pc = code[pc];
+        else {
+          sp--;
+          pc++;
+        }
+        break;
+      case JUMP_IF_TRUE_OR_POP:
+        if (stack[sp - 1].isTrue())
+          pc = code[pc];
+        else {
+          sp--;
+          pc++;
+        }
+        break;
+      case LIST: {
+        int n = code[pc++];
+        sp -= n;
+        stack[sp] = new Vlist(Arrays.copyOfRange(stack, sp, sp + n));
+        sp++;
+        break;
+      }
+      case ASLIST:
+        stack[sp - 1].asList();
+        break;
+      case GET: {
+        Vlist l = (Vlist) stack[sp - 2];
+        long i = stack[--sp].asInt();
+        if (i < 0 || i >= l.size())
+          throw new Error("index out of bounds");
+        stack[sp - 1] = l.get((int)i);
+        break;
+      }
+      case CHECK_INDEX: {
+        Vlist l = (Vlist) stack[sp - 2];
+        long i = stack[sp - 1].asInt();
+        if (i < 0 || i >= l.size())
+          throw new Error("index out of bounds");
+        break;
+      }
+      case SET: {
+        sp -= 3;
+        ((Vlist) stack[sp]).set((int)((Vint) stack[sp + 1]).n, stack[sp + 2]);
+        break;
+      }
+      case LEN:
+        stack[sp - 1] = Interp.len(stack[sp - 1]);
+        break;
+      case RANGE:
+        stack[sp - 1] = Interp.range(stack[sp - 1]);
+        break;
+      case APPEND:
+        v2 = stack[--sp];
+        stack[sp - 1] = Interp.append(stack[sp - 1], v2);
+        break;
+      case MAP:
+        stack[sp - 1] = map(c.callees[code[pc++]], stack[sp - 1].asList());
+        break;
+      case CALL: {
+        Chunk g = c.callees[code[pc++]];
+        int n = code[pc++];
+        Value[] callee = new Value[g.frameSize + g.loops];
+        sp -= n;
+        for (int i = 0; i < n; i++)
+          callee[g.params[i]] = stack[sp + i];
+        f.pc = pc;
+        this.sp = sp;
+        push(new Frame(g, callee));
+        this.steps = steps - 1;
+        return steps > 0;
+      }
+      case TAIL_CALL: {
+        // the stack below the arguments is empty in a `return`
+        int n = code[pc];
+        sp -= n;
+        Arrays.fill(locals, null);
+        for (int i = 0; i < n; i++)
+          locals[c.params[i]] = stack[sp + i];
+        pc = 0;
+        if (--steps < 0) {
+          f.pc = pc;
+          this.sp = sp;
+          this.steps = steps;
+          return false;
+        }
+        break;
+      }
+      case RETURN:
+      case RETURN_NONE: {
+        Value r = code[pc - 1] == RETURN ? stack[--sp] : new Vnone();
+        used -= cost(c);
+        frames[--fp] = null;
+        this.steps = steps;
+        if (fp == 0) {
+          // a `return` in the global block
+          halted = true;
+          result = r;
+          this.sp = sp;
+          return true;
+        }
+        stack[sp++] = r;
+        this.sp = sp;
+        return true;
+      }
+      case PRINT:
+        out.println(stack[--sp]);
+        break;
+      case FOR_PREP:
+        locals[c.frameSize + code[pc]] = stack[--sp].asList();
+        index[code[pc++]] = 0;
+        break;
+      case FOR_NEXT: {
+        int k = code[pc];
+        Vlist l = (Vlist) locals[c.frameSize + k];
+        if (index[k] < l.size()) {
+          locals[code[pc + 1]] = l.get(index[k]++);
+          pc += 3;
+        } else
+          pc = code[pc + 2];
+        break;
+      }
+      case FAIL:
+        throw new Error(consts[code[pc]].toString());
+      case HALT:
+        halted = true;
+        this.sp = sp;
+        this.steps = steps;
+        return true;
+      default:
+        throw new Error("bad opcode " + code[pc - 1]);
+      }
+    }
+  }
+}
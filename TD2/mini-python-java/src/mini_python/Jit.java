@@ -0,0 +1,941 @@
+package mini_python;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static mini_python.MethodWriter.*;
+
+/* Compilation of functions to JVM bytecode (--engine=jit).
+
+   When the program is loaded, each function definition is compiled to a
+   hidden class, with a static method `run` taking one Value per parameter.
+   The JVM then compiles this method like any Java code, and can inline the
+   helpers below into it.
+
+   Expressions are compiled to one of three kinds of JVM values: a Value,
+   a raw `long` when the result is known to be an integer that fits
+   (integer constants, and `len`), or a raw boolean for comparisons.
+   Values are only built when needed, for instance when storing into a
+   variable or returning. Arithmetic operations may overflow into big
+   integers (see Vint), so their results are Values; they check for
+   overflow, inline when possible (see `arithmetic`) or in the helpers.
+   Inline arithmetic stays a raw `long` inside the expression, and also
+   when its result is an index or a condition (see `unboxed`).
+
+   A function that cannot be compiled (duplicate parameters, code too large)
+   is left to the tree interpreter. The global block is always run by
+   Interp, which calls the compiled code through `Def.jit`. */
+
+// the compiled code of a function
+interface JitFunction {
+  Value call(Value[] args);
+}
+
+class Jit implements Visitor {
+
+  static final String VALUE = "mini_python/Value";
+  static final String V = "Lmini_python/Value;";
+  static final String VLIST = "mini_python/Vlist";
+  static final String VINT = "mini_python/Vint";
+  static final String JIT = "mini_python/Jit";
+  static final String DEF = "mini_python/Def";
+  static final String OUTPUT = "mini_python/Output";
+
+  // the kinds of compiled expressions
+  static final int KVALUE = 0, KLONG = 1, KBOOL = 2;
+
+  final Run run;
+  final Def d;
+  final ClassFile cf;
+  final MethodWriter c;
+  final String desc; // descriptor of `run`
+  final ArrayList<Def> callees = new ArrayList<Def>();
+  // the locals after the variables of the function: states of the loops,
+  // and temporaries of the arithmetic expressions
+  int locals = 0, maxLocals = 0;
+  boolean generic = false; // when compiling the slow path of arithmetic
+  int kind; // the kind of the last compiled expression
+  final Label start = new Label(); // where self tail calls jump to
+
+  Jit(Run run, Def d) {
+    this.run = run;
+    this.d = d;
+    this.cf = new ClassFile("mini_python/Jit_" + d.f.id);
+    StringBuilder b = new StringBuilder("(");
+    for (int i = 0; i < d.l.length; i++)
+      b.append(V);
+    this.desc = b.append(")").append(V).toString();
+    this.c = cf.addMethod(ClassFile.ACC_STATIC, "run", desc);
+  }
+
+  /* compiles all the functions of the program; the functions that cannot
+     be compiled are interpreted when called from compiled code */
+  static void compile(Run run, File f) {
+    for (Def d: f.l) {
+      try {
+        d.jit = new Jit(run, d).define();
+      } catch (Unsupported e) {
+        d.jit = null;
+      } catch (LinkageError e) {
+        d.jit = null;
+      }
+      if (d.jit == null)
+        d.jit = args -> Interp.call(run, d, args);
+    }
+  }
+
+  JitFunction define() {
+    HashSet<String> params = new HashSet<String>();
+    for (Ident x: d.l)
+      if (!params.add(x.id))
+        throw new Unsupported("duplicate parameter " + x.id);
+    if (d.l.length > 255)
+      throw new Unsupported("too many parameters");
+
+    // run: the locals that are not parameters start unbound
+    c.place(start);
+    for (int x = d.l.length; x < d.frameSize; x++) {
+      c.op(ACONST_NULL, 1);
+      c.astore(x);
+    }
+    d.s.accept(this);
+    if (c.depth >= 0) {
+      c.invokestatic(JIT, "none", "()" + V);
+      c.op(ARETURN, -1);
+    }
+    c.end(d.frameSize + maxLocals);
+
+    // call: unpacks the arguments
+    MethodWriter m = cf.addMethod(ClassFile.ACC_PUBLIC, "call", "([" + V + ")" + V);
+    for (int i = 0; i < d.l.length; i++) {
+      m.aload(1);
+      m.iconst(i);
+      m.op(AALOAD, -1);
+    }
+    m.invokestatic(cf.name, "run", desc);
+    m.op(ARETURN, -1);
+    m.end(2);
+
+    m = cf.addMethod(0, "<init>", "()V");
+    m.aload(0);
+    m.invokespecial("java/lang/Object", "<init>", "()V");
+    m.op(RETURN, 0);
+    m.end(1);
+
+    // <clinit>: the output of the program and the callees are given as
+    // class data
+    m = cf.addMethod(ClassFile.ACC_STATIC, "<clinit>", "()V");
+    m.invokestatic("java/lang/invoke/MethodHandles", "lookup",
+                   "()Ljava/lang/invoke/MethodHandles$Lookup;");
+    m.sconst("_");
+    m.cconst("[Ljava/lang/Object;");
+    m.invokestatic("java/lang/invoke/MethodHandles", "classData",
+                   "(Ljava/lang/invoke/MethodHandles$Lookup;"
+                   + "Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;");
+    m.op2(CHECKCAST, cf.cls("[Ljava/lang/Object;"), 0);
+    Object[] data = new Object[1 + callees.size()];
+    data[0] = run.out;
+    cf.addField(ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC
+                | ClassFile.ACC_FINAL, "out", "L" + OUTPUT + ";");
+    m.op(DUP, 1);
+    m.iconst(0);
+    m.op(AALOAD, -1);
+    m.op2(CHECKCAST, cf.cls(OUTPUT), 0);
+    m.putstatic(cf.name, "out", "L" + OUTPUT + ";");
+    for (int i = 0; i < callees.size(); i++) {
+      data[1 + i] = callees.get(i);
+      cf.addField(ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC
+                  | ClassFile.ACC_FINAL, "d" + i, "L" + DEF + ";");
+      m.op(DUP, 1);
+      m.iconst(1 + i);
+      m.op(AALOAD, -1);
+      m.op2(CHECKCAST, cf.cls(DEF), 0);
+      m.putstatic(cf.name, "d" + i, "L" + DEF + ";");
+    }
+    m.op(POP, -1);
+    m.op(RETURN, 0);
+    m.end(0);
+
+    byte[] bytes = cf.toBytes("java/lang/Object", "mini_python/JitFunction");
+    try {
+      MethodHandles.Lookup l = MethodHandles.lookup()
+        .defineHiddenClassWithClassData(bytes, data, true);
+      return (JitFunction) l.lookupClass().getDeclaredConstructor()
+        .newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new Unsupported(e.toString());
+    }
+  }
+
+  // a new local, of n words
+  int local(int n) {
+    int x = d.frameSize + locals;
+    locals += n;
+    maxLocals = Math.max(maxLocals, locals);
+    return x;
+  }
+
+  // compilation of expressions, to a given kind
+
+  void value(Expr e) {
+    e.accept(this);
+    toValue();
+  }
+
+  void toValue() {
+    if (kind == KLONG)
+      c.invokestatic(JIT, "box", "(J)" + V);
+    else if (kind == KBOOL)
+      c.invokestatic(JIT, "bool", "(Z)" + V);
+    kind = KVALUE;
+  }
+
+  // an integer, raising "integer expected" as Value.asInt does
+  void integer(Expr e) {
+    if (unboxed(e, false))
+      return;
+    e.accept(this);
+    if (kind == KBOOL)
+      toValue();
+    if (kind == KVALUE)
+      c.invokevirtual(VALUE, "asInt", "()J");
+    kind = KLONG;
+  }
+
+  // an int which is zero when e is false
+  void truth(Expr e) {
+    if (unboxed(e, true))
+      return;
+    e.accept(this);
+    if (kind == KLONG) {
+      c.lconst(0);
+      c.op(LCMP, -3);
+    } else if (kind == KVALUE)
+      c.invokevirtual(VALUE, "isTrue", "()Z");
+    kind = KBOOL;
+  }
+
+  // turns an int on the stack into a boolean, with a branch
+  void bool(int ifTrue) {
+    Label t = new Label(), end = new Label();
+    c.jump(ifTrue, t, -1);
+    c.iconst(0);
+    c.jump(GOTO, end, 0);
+    c.place(t);
+    c.iconst(1);
+    c.place(end);
+    kind = KBOOL;
+  }
+
+  // raises an error; what follows is dead code
+  void raise(String msg) {
+    c.sconst(msg);
+    c.invokestatic(JIT, "fail", "(Ljava/lang/String;)Ljava/lang/Error;");
+    c.op(ATHROW, -1);
+    c.unreachable();
+    kind = KVALUE;
+  }
+
+  // constants
+
+  public void visit(Cnone cst) {
+    c.invokestatic(JIT, "none", "()" + V);
+    kind = KVALUE;
+  }
+  public void visit(Cbool cst) {
+    c.iconst(cst.b ? 1 : 0);
+    kind = KBOOL;
+  }
+  public void visit(Cstring cst) {
+    c.sconst(cst.s);
+    c.invokestatic(JIT, "str", "(Ljava/lang/String;)" + V);
+    kind = KVALUE;
+  }
+  public void visit(Cint cst) {
+    c.lconst(cst.n);
+    kind = KLONG;
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+    e.c.accept(this);
+  }
+
+  static String sig(int k) {
+    return k == KLONG ? "J" : V;
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    switch (e.op) {
+    case Band:
+    case Bor: {
+      Label end = new Label();
+      value(e.e1);
+      c.op(DUP, 1);
+      c.invokevirtual(VALUE, e.op == Binop.Band ? "isTrue" : "isFalse", "()Z");
+      c.jump(IFEQ, end, -1);
+      c.op(POP, -1);
+      value(e.e2);
+      c.place(end);
+      kind = KVALUE;
+      return;
+    }
+    case Beq: case Bneq: case Blt: case Ble: case Bgt: case Bge: {
+      if (!generic && inlinable(e.e1) && inlinable(e.e2)) {
+        // as for arithmetic, with a slow path comparing Values
+        int mark = locals;
+        Label slow = new Label(), end = new Label();
+        int x = inline(e.e1, slow), y = inline(e.e2, slow);
+        c.lload(x);
+        c.lload(y);
+        c.op(LCMP, -3);
+        c.jump(GOTO, end, 0);
+        c.place(slow);
+        generic = true;
+        compare(e);
+        generic = false;
+        c.place(end);
+        locals = mark;
+      } else
+        compare(e);
+      int ifTrue;
+      switch (e.op) {
+      case Beq: ifTrue = IFEQ; break;
+      case Bneq: ifTrue = IFNE; break;
+      case Blt: ifTrue = IFLT; break;
+      case Ble: ifTrue = IFLE; break;
+      case Bgt: ifTrue = IFGT; break;
+      default: ifTrue = IFGE;
+      }
+      bool(ifTrue);
+      return;
+    }
+    default:
+    }
+    if (arithmetic(e))
+      return;
+    e.e1.accept(this);
+    if (kind == KBOOL)
+      toValue();
+    int k1 = kind;
+    e.e2.accept(this);
+    if (kind == KBOOL)
+      toValue();
+    int k2 = kind;
+    String name;
+    switch (e.op) {
+    case Badd: name = "add"; break;
+    case Bsub: name = "sub"; break;
+    case Bmul: name = "mul"; break;
+    case Bdiv: name = "div"; break;
+    default: name = "mod";
+    }
+    c.invokestatic(JIT, name, "(" + sig(k1) + sig(k2) + ")" + V);
+    kind = KVALUE;
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    switch (e.op) {
+    case Uneg:
+      if (arithmetic(e))
+        return;
+      e.e.accept(this);
+      if (kind == KBOOL)
+        toValue();
+      c.invokestatic(JIT, "neg", "(" + sig(kind) + ")" + V);
+      kind = KVALUE;
+      break;
+    case Unot:
+      truth(e.e);
+      bool(IFEQ);
+      break;
+    }
+  }
+
+  // an int which is 0 when the operands are equal, and of the sign of
+  // their comparison otherwise
+  void compare(Ebinop e) {
+    e.e1.accept(this);
+    if (kind == KBOOL)
+      toValue();
+    int k1 = kind;
+    e.e2.accept(this);
+    if (kind == KBOOL)
+      toValue();
+    int k2 = kind;
+    if (k1 == KLONG && k2 == KLONG)
+      c.op(LCMP, -3);
+    else if (e.op == Binop.Beq || e.op == Binop.Bneq)
+      c.invokestatic(JIT, "equal", "(" + sig(k1) + sig(k2) + ")I");
+    else
+      c.invokestatic(JIT, "compare", "(" + sig(k1) + sig(k2) + ")I");
+  }
+
+  /* Arithmetic on variables, integer constants and `len(x)`, such as
+     `x * x + 1`, is compiled inline: the variables are checked to be Vint
+     and unboxed into temporaries, and each operation checks for overflow.
+     If a check fails, the whole expression is evaluated again with the
+     helpers below, which raise the errors or build the big integers; this
+     is harmless since such an expression has no effects. The temporaries
+     are free again afterwards. */
+  boolean arithmetic(Expr e) {
+    if (generic || !inlinable(e))
+      return false;
+    int mark = locals;
+    Label slow = new Label(), end = new Label();
+    int r = inline(e, slow);
+    c.lload(r);
+    c.invokestatic(JIT, "box", "(J)" + V);
+    c.jump(GOTO, end, 0);
+    c.place(slow);
+    generic = true;
+    e.accept(this);
+    generic = false;
+    toValue();
+    c.place(end);
+    locals = mark;
+    kind = KVALUE;
+    return true;
+  }
+
+  /* The same, for arithmetic used as an index or as a condition, as in
+     `l[i + 1]` or `if n % 2:`: the result of the fast path is not boxed,
+     but left as a long, or as a boolean when `truth` is set. The slow path
+     converts its Value likewise. */
+  boolean unboxed(Expr e, boolean truth) {
+    if (generic || !(e instanceof Ebinop || e instanceof Eunop)
+        || !inlinable(e))
+      return false;
+    int mark = locals;
+    Label slow = new Label(), end = new Label();
+    int r = inline(e, slow);
+    c.lload(r);
+    if (truth) {
+      c.lconst(0);
+      c.op(LCMP, -3);
+    }
+    c.jump(GOTO, end, 0);
+    c.place(slow);
+    generic = true;
+    e.accept(this);
+    generic = false;
+    toValue();
+    if (truth)
+      c.invokevirtual(VALUE, "isTrue", "()Z");
+    else
+      c.invokevirtual(VALUE, "asInt", "()J");
+    c.place(end);
+    locals = mark;
+    kind = truth ? KBOOL : KLONG;
+    return true;
+  }
+
+  static boolean inlinable(Expr e) {
+    if (e instanceof Eident)
+      return true;
+    if (e instanceof Ecall) {
+      // len(x), a raw long without effects, which can be evaluated again
+      Ecall call = (Ecall) e;
+      return call.f.id.equals("len") && call.l.length == 1
+        && call.l[0] instanceof Eident;
+    }
+    if (e instanceof Ecst)
+      return ((Ecst) e).c instanceof Cint;
+    if (e instanceof Eunop)
+      return ((Eunop) e).op == Unop.Uneg && inlinable(((Eunop) e).e);
+    if (!(e instanceof Ebinop))
+      return false;
+    Ebinop b = (Ebinop) e;
+    switch (b.op) {
+    case Badd: case Bsub: case Bmul: case Bdiv: case Bmod:
+      return inlinable(b.e1) && inlinable(b.e2);
+    default:
+      return false;
+    }
+  }
+
+  // computes e into a new temporary, jumping to `slow` on failure
+  int inline(Expr e, Label slow) {
+    if (e instanceof Ecst) {
+      int r = local(2);
+      c.lconst(((Cint) ((Ecst) e).c).n);
+      c.lstore(r);
+      return r;
+    }
+    if (e instanceof Ecall) {
+      int r = local(2);
+      e.accept(this);
+      c.lstore(r);
+      return r;
+    }
+    if (e instanceof Eident) {
+      int x = ((Eident) e).x.slot, r = local(2);
+      c.aload(x);
+      c.op2(INSTANCEOF, cf.cls(VINT), 0);
+      c.jump(IFEQ, slow, -1);
+      c.aload(x);
+      c.op2(CHECKCAST, cf.cls(VINT), 0);
+      c.getfield(VINT, "n", "J");
+      c.lstore(r);
+      return r;
+    }
+    if (e instanceof Eunop) {
+      int a = inline(((Eunop) e).e, slow), r = local(2);
+      c.lload(a);
+      c.lconst(Long.MIN_VALUE);
+      c.op(LCMP, -3);
+      c.jump(IFEQ, slow, -1);
+      c.lload(a);
+      c.op(LNEG, 0);
+      c.lstore(r);
+      return r;
+    }
+    Ebinop b = (Ebinop) e;
+    int x = inline(b.e1, slow), y = inline(b.e2, slow), r = local(2);
+    switch (b.op) {
+    case Badd:
+    case Bsub:
+      c.lload(x);
+      c.lload(y);
+      c.op(b.op == Binop.Badd ? LADD : LSUB, -2);
+      c.lstore(r);
+      // overflow: ((x ^ r) & (y ^ r)) < 0 for +, ((x ^ y) & (x ^ r)) < 0 for -
+      c.lload(x);
+      c.lload(b.op == Binop.Badd ? r : y);
+      c.op(LXOR, -2);
+      c.lload(b.op == Binop.Badd ? y : x);
+      c.lload(r);
+      c.op(LXOR, -2);
+      c.op(LAND, -2);
+      c.lconst(0);
+      c.op(LCMP, -3);
+      c.jump(IFLT, slow, -1);
+      break;
+    case Bmul:
+      c.lload(x);
+      c.lload(y);
+      c.op(LMUL, -2);
+      c.lstore(r);
+      // overflow: the high word of the product is not the sign of r
+      c.lload(x);
+      c.lload(y);
+      c.invokestatic("java/lang/Math", "multiplyHigh", "(JJ)J");
+      c.lload(r);
+      c.iconst(63);
+      c.op(LSHR, -1);
+      c.op(LCMP, -3);
+      c.jump(IFNE, slow, -1);
+      break;
+    default:
+      // division by zero, or by -1 which may overflow
+      c.lload(y);
+      c.lconst(0);
+      c.op(LCMP, -3);
+      c.jump(IFEQ, slow, -1);
+      c.lload(y);
+      c.lconst(-1);
+      c.op(LCMP, -3);
+      c.jump(IFEQ, slow, -1);
+      c.lload(x);
+      c.lload(y);
+      c.op(b.op == Binop.Bdiv ? LDIV : LREM, -2);
+      c.lstore(r);
+    }
+    return r;
+  }
+
+  boolean isParam(Ident x) {
+    for (Ident p: d.l)
+      if (p.slot == x.slot)
+        return true;
+    return false;
+  }
+
+  @Override
+  public void visit(Eident e) {
+    c.aload(e.x.slot);
+    // a parameter is always bound
+    if (!isParam(e.x)) {
+      Label ok = new Label();
+      c.op(DUP, 1);
+      c.jump(IFNONNULL, ok, -1);
+      c.sconst(e.x.id);
+      c.invokestatic(JIT, "unbound", "(Ljava/lang/String;)Ljava/lang/Error;");
+      c.op(ATHROW, -1);
+      c.unreachable();
+      c.place(ok);
+    }
+    kind = KVALUE;
+  }
+
+  // an array of the values of l
+  void array(Expr[] l) {
+    c.iconst(l.length);
+    c.op2(ANEWARRAY, cf.cls(VALUE), 0);
+    int i = 0;
+    for (Expr e: l) {
+      c.op(DUP, 1);
+      c.iconst(i++);
+      value(e);
+      c.op(AASTORE, -3);
+    }
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    switch (e.f.id) {
+    case "len":
+    case "list":
+    case "range":
+      if (e.l.length != 1) {
+        raise("bad arity");
+        return;
+      }
+      if (e.f.id == "list") {
+        e.l[0].accept(this);
+        return;
+      }
+      value(e.l[0]);
+      if (e.f.id == "len") {
+        c.invokestatic(JIT, "len", "(" + V + ")J");
+        kind = KLONG;
+      } else {
+        c.invokestatic("mini_python/Interp", "range", "(" + V + ")" + V);
+        kind = KVALUE;
+      }
+      return;
+    case "append":
+      if (e.l.length != 2) {
+        raise("bad arity");
+        return;
+      }
+      value(e.l[0]);
+      value(e.l[1]);
+      c.invokestatic("mini_python/Interp", "append", "(" + V + V + ")" + V);
+      kind = KVALUE;
+      return;
+    case "pmap":
+      throw new Unsupported("pmap"); // the function is interpreted
+    default:
+      Def f = run.functions.get(e.f.id);
+      if (f == null) {
+        raise("unbound function " + e.f.id);
+        return;
+      }
+      if (e.l.length != f.l.length) {
+        raise("bad arity");
+        return;
+      }
+      if (f == d) {
+        // a recursive call is a direct call
+        for (Expr e1: e.l)
+          value(e1);
+        c.invokestatic(cf.name, "run", desc);
+      } else {
+        int k = callees.indexOf(f);
+        if (k < 0) {
+          k = callees.size();
+          callees.add(f);
+        }
+        array(e.l);
+        c.getstatic(cf.name, "d" + k, "L" + DEF + ";");
+        c.getfield(DEF, "jit", "Lmini_python/JitFunction;");
+        c.op(SWAP, 0);
+        c.invokeinterface("mini_python/JitFunction", "call",
+                          "([" + V + ")" + V);
+      }
+      kind = KVALUE;
+    }
+  }
+
+  @Override
+  public void visit(Eget e) {
+    value(e.e1);
+    c.invokevirtual(VALUE, "asList", "()L" + VLIST + ";");
+    integer(e.e2);
+    c.invokestatic(JIT, "get", "(L" + VLIST + ";J)" + V);
+    kind = KVALUE;
+  }
+
+  @Override
+  public void visit(Elist e) {
+    array(e.l);
+    c.invokestatic(JIT, "list", "([" + V + ")" + V);
+    kind = KVALUE;
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    Label otherwise = new Label(), end = new Label();
+    truth(s.e);
+    c.jump(IFEQ, otherwise, -1);
+    s.s1.accept(this);
+    c.jump(GOTO, end, 0);
+    c.place(otherwise);
+    s.s2.accept(this);
+    c.place(end);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    if (s.tail) {
+      // the parameters are the first locals (see Resolver)
+      Ecall e = (Ecall) s.e;
+      for (Expr e1: e.l)
+        value(e1);
+      for (int x = e.l.length - 1; x >= 0; x--)
+        c.astore(x);
+      c.jump(GOTO, start, 0);
+      return;
+    }
+    value(s.e);
+    c.op(ARETURN, -1);
+    c.unreachable();
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    value(s.e);
+    c.astore(s.x.slot);
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    value(s.e);
+    c.getstatic(cf.name, "out", "L" + OUTPUT + ";");
+    c.op(SWAP, 0);
+    c.invokevirtual(OUTPUT, "println", "(" + V + ")V");
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    for (Stmt st: s.l)
+      st.accept(this);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    int list = local(1), index = local(1);
+    Label loop = new Label(), end = new Label();
+    value(s.e);
+    c.invokevirtual(VALUE, "asList", "()L" + VLIST + ";");
+    c.astore(list);
+    c.iconst(0);
+    c.istore(index);
+    c.place(loop);
+    c.iload(index);
+    c.aload(list);
+    c.invokestatic(JIT, "size", "(L" + VLIST + ";)I");
+    c.jump(IF_ICMPGE, end, -2);
+    c.aload(list);
+    c.iload(index);
+    c.invokestatic(JIT, "item", "(L" + VLIST + ";I)" + V);
+    c.astore(s.x.slot);
+    c.iinc(index, 1);
+    s.s.accept(this);
+    c.jump(GOTO, loop, 0);
+    c.place(end);
+  }
+
+  @Override
+  public void visit(Seval s) {
+    s.e.accept(this);
+    c.op(kind == KLONG ? POP2 : POP, kind == KLONG ? -2 : -1);
+  }
+
+  @Override
+  public void visit(Sset s) {
+    value(s.e1);
+    c.invokevirtual(VALUE, "asList", "()L" + VLIST + ";");
+    c.op(DUP, 1);
+    integer(s.e2);
+    c.invokestatic(JIT, "index", "(L" + VLIST + ";J)I");
+    value(s.e3);
+    c.invokestatic(JIT, "set", "(L" + VLIST + ";I" + V + ")V");
+  }
+
+  /* Helpers called by the compiled code. They raise the same errors as
+     Interp.binop, in the same order. */
+
+  static Value box(long n) {
+    return new Vint(n);
+  }
+  static Value bool(boolean b) {
+    return new Vbool(b);
+  }
+  static Value none() {
+    return new Vnone();
+  }
+  static Value str(String s) {
+    return new Vstring(s);
+  }
+  static Error unbound(String x) {
+    return new Error("unbound variable " + x);
+  }
+  static Error fail(String msg) {
+    return new Error(msg);
+  }
+
+  /* The arithmetic operations, on Values or raw integers. The raw
+     integers are boxed only when the other operand is not a Vint. */
+
+  static Value add(Value a, Value b) {
+    if (a instanceof Vint && b instanceof Vint)
+      return Vint.add(((Vint) a).n, ((Vint) b).n);
+    return Interp.binop(Binop.Badd, a, b);
+  }
+  static Value add(Value a, long b) {
+    if (a instanceof Vint)
+      return Vint.add(((Vint) a).n, b);
+    return Interp.binop(Binop.Badd, a, new Vint(b));
+  }
+  static Value add(long a, Value b) {
+    if (b instanceof Vint)
+      return Vint.add(a, ((Vint) b).n);
+    return Interp.binop(Binop.Badd, new Vint(a), b);
+  }
+  static Value add(long a, long b) {
+    return Vint.add(a, b);
+  }
+
+  static Value sub(Value a, Value b) {
+    if (a instanceof Vint && b instanceof Vint)
+      return Vint.sub(((Vint) a).n, ((Vint) b).n);
+    return Interp.binop(Binop.Bsub, a, b);
+  }
+  static Value sub(Value a, long b) {
+    if (a instanceof Vint)
+      return Vint.sub(((Vint) a).n, b);
+    return Interp.binop(Binop.Bsub, a, new Vint(b));
+  }
+  static Value sub(long a, Value b) {
+    if (b instanceof Vint)
+      return Vint.sub(a, ((Vint) b).n);
+    return Interp.binop(Binop.Bsub, new Vint(a), b);
+  }
+  static Value sub(long a, long b) {
+    return Vint.sub(a, b);
+  }
+
+  static Value mul(Value a, Value b) {
+    if (a instanceof Vint && b instanceof Vint)
+      return Vint.mul(((Vint) a).n, ((Vint) b).n);
+    return Interp.binop(Binop.Bmul, a, b);
+  }
+  static Value mul(Value a, long b) {
+    if (a instanceof Vint)
+      return Vint.mul(((Vint) a).n, b);
+    return Interp.binop(Binop.Bmul, a, new Vint(b));
+  }
+  static Value mul(long a, Value b) {
+    if (b instanceof Vint)
+      return Vint.mul(a, ((Vint) b).n);
+    return Interp.binop(Binop.Bmul, new Vint(a), b);
+  }
+  static Value mul(long a, long b) {
+    return Vint.mul(a, b);
+  }
+
+  static Value div(Value a, Value b) {
+    if (a instanceof Vint && b instanceof Vint)
+      return Vint.div(((Vint) a).n, ((Vint) b).n);
+    return Interp.binop(Binop.Bdiv, a, b);
+  }
+  static Value div(Value a, long b) {
+    if (a instanceof Vint)
+      return Vint.div(((Vint) a).n, b);
+    return Interp.binop(Binop.Bdiv, a, new Vint(b));
+  }
+  static Value div(long a, Value b) {
+    if (b instanceof Vint)
+      return Vint.div(a, ((Vint) b).n);
+    return Interp.binop(Binop.Bdiv, new Vint(a), b);
+  }
+  static Value div(long a, long b) {
+    return Vint.div(a, b);
+  }
+
+  static Value mod(Value a, Value b) {
+    if (a instanceof Vint && b instanceof Vint)
+      return Vint.mod(((Vint) a).n, ((Vint) b).n);
+    return Interp.binop(Binop.Bmod, a, b);
+  }
+  static Value mod(Value a, long b) {
+    if (a instanceof Vint)
+      return Vint.mod(((Vint) a).n, b);
+    return Interp.binop(Binop.Bmod, a, new Vint(b));
+  }
+  static Value mod(long a, Value b) {
+    if (b instanceof Vint)
+      return Vint.mod(a, ((Vint) b).n);
+    return Interp.binop(Binop.Bmod, new Vint(a), b);
+  }
+  static Value mod(long a, long b) {
+    return Vint.mod(a, b);
+  }
+
+  static Value neg(Value a) {
+    return Interp.neg(a);
+  }
+  static Value neg(long a) {
+    return Vint.neg(a);
+  }
+
+  static int compare(Value a, Value b) {
+    return a.compareTo(b);
+  }
+  static int compare(Value a, long b) {
+    if (a instanceof Vint)
+      return Long.compare(((Vint) a).n, b);
+    return a.compareTo(new Vint(b));
+  }
+  static int compare(long a, Value b) {
+    if (b instanceof Vint)
+      return Long.compare(a, ((Vint) b).n);
+    return new Vint(a).compareTo(b);
+  }
+
+  // 0 when the values are equal, as compare
+  static int equal(Value a, Value b) {
+    return Value.equal(a, b) ? 0 : 1;
+  }
+  static int equal(Value a, long b) {
+    return a instanceof Vint && ((Vint) a).n == b ? 0 : 1;
+  }
+  static int equal(long a, Value b) {
+    return b instanceof Vint && a == ((Vint) b).n ? 0 : 1;
+  }
+
+  static long len(Value v) {
+    return ((Vint) Interp.len(v)).n;
+  }
+
+  static Value list(Value[] l) {
+    return new Vlist(l);
+  }
+  static int size(Vlist l) {
+    return l.size();
+  }
+  static Value item(Vlist l, int i) {
+    return l.get(i);
+  }
+  static int index(Vlist l, long i) {
+    if (i < 0 || i >= l.size())
+      throw new Error("index out of bounds");
+    return (int)i;
+  }
+  static Value get(Vlist l, long i) {
+    return l.get(index(l, i));
+  }
+  static void set(Vlist l, int i, Value v) {
+    l.set(i, v);
+  }
+
+}
@@ -476,7 +476,8 @@ class Lexer implements java_cup.runtime.Scanner {
 	return new Symbol(id, yyline, yycolumn, value);
     }
 
-    static Stack<Integer> indent = new Stack<Integer>();
+    // the indentation of the enclosing blocks, for this file only
+    final Stack<Integer> indent = new Stack<Integer>();
     { indent.push(0); }
 
 
@@ -897,7 +898,7 @@ class Lexer implements java_cup.runtime.Scanner {
           case 4: 
             { return symbol(IDENT,
                     new Ident(yytext().intern(),
-                              new Location(yyline, yycolumn)));
+                              Location.of(yyline, yycolumn)));
             } 
             // fall through
           case 41: break;
@@ -1,23 +1,180 @@
 package mini_python;
 
+import java.io.FileReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+
 public class Main {
 
+  // the execution engine, chosen with --engine=interp|closure|vm|jit
+  static String engine = "interp";
+  // --disasm prints the bytecode of the program instead of running it
+  static boolean disasm = false;
+  // --no-fold disables constant folding (see Fold)
+  static boolean fold = true;
+  // --stack=SIZE[k|m|g] runs the vm with its frames on the heap (see
+  // HeapVM), with this memory budget in bytes, which bounds the depth of the
+  // recursion; 0 when disabled
+  static long stackSize = 0;
+  // --memo[=ENTRIES] caches the results of pure functions (see Memo); 0
+  // when disabled
+  static int memo = 0;
+  // --parallel[=THREADS] runs independent loops, pairs of calls and pmap
+  // in parallel (see Parallel); 0 when disabled
+  static int parallel = 0;
+  // --server=SOCKET runs the programs sent to this socket (see Server)
+  static String server = null;
+
   public static void main(String[] args) throws Exception {
-    String file = args.length > 0 ? args[0] : "test.py";
-    java.io.Reader reader = new java.io.FileReader(file);
-    Lexer lexer = new MyLexer(reader);
-    MyParser parser = new MyParser(lexer);
+    ArrayList<String> files = new ArrayList<String>();
+    String manifest = null;
+    for (String arg: args) {
+      if (arg.startsWith("--engine="))
+        engine = arg.substring("--engine=".length());
+      else if (arg.equals("--disasm"))
+        disasm = true;
+      else if (arg.equals("--no-fold"))
+        fold = false;
+      else if (arg.startsWith("--stack="))
+        stackSize = size(arg.substring("--stack=".length()));
+      else if (arg.equals("--memo"))
+        memo = Memo.CAPACITY;
+      else if (arg.startsWith("--memo="))
+        memo = (int) Math.min(Integer.MAX_VALUE, size(arg.substring("--memo=".length())));
+      else if (arg.equals("--parallel"))
+        parallel = Runtime.getRuntime().availableProcessors();
+      else if (arg.startsWith("--parallel="))
+        parallel = threads(arg.substring("--parallel=".length()));
+      else if (arg.startsWith("--manifest="))
+        manifest = arg.substring("--manifest=".length());
+      else if (arg.startsWith("--jobs="))
+        Batch.jobs = threads(arg.substring("--jobs=".length()));
+      else if (arg.startsWith("--outdir="))
+        Batch.outdir = arg.substring("--outdir=".length());
+      else if (arg.startsWith("--server="))
+        server = arg.substring("--server=".length());
+      else
+        files.add(arg);
+    }
+    if (!engine.equals("interp") && !engine.equals("closure")
+        && !engine.equals("vm") && !engine.equals("jit")) {
+      System.err.println("unknown engine " + engine);
+      System.exit(2);
+    }
+    if (stackSize < 0 || stackSize > 0 && !engine.equals("vm")) {
+      System.err.println("--stack needs the vm engine and a size");
+      System.exit(2);
+    }
+    if (memo < 0 || memo > 0 && !engine.equals("interp")) {
+      System.err.println("--memo needs the interp engine and a size");
+      System.exit(2);
+    }
+    if (parallel < 0 || parallel > 0 && !engine.equals("interp")) {
+      System.err.println("--parallel needs the interp engine and a number of threads");
+      System.exit(2);
+    }
+    if (server != null) {
+      if (Batch.jobs <= 0 || disasm || manifest != null || !files.isEmpty()) {
+        System.err.println("server mode needs a number of jobs, and no --disasm or files");
+        System.exit(2);
+      }
+      Server.serve(server);
+    }
+    if (manifest != null || files.size() > 1) {
+      if (Batch.jobs <= 0 || disasm) {
+        System.err.println("batch mode needs a number of jobs, and no --disasm");
+        System.exit(2);
+      }
+      System.exit(Batch.run(files, manifest));
+    }
+    int status = run(files.isEmpty() ? "test.py" : files.get(0),
+                     Output.stdout(), System.err);
+    if (status != 0)
+      System.exit(status);
+  }
+
+  /* runs the program in `file`, printing its output into `out`, and the
+     report of --memo into `err`; returns the exit status, 1 after an error,
+     whose message ends the output */
+  static int run(String file, Output out, PrintStream err) {
+    Run run = null;
     try {
-      File f = (File) parser.parse().value;
-      for (Def d: f.l)
-        Interp.functions.put(d.f.id, d);
-      f.s.accept(new Interp());
+      File f = parse(file);
+      if (fold)
+        f = Fold.fold(f);
+      Resolver.resolve(f);
+      run = new Run(f, out);
+      if (memo > 0)
+        run.memo = new Memo(run, f, memo);
+      if (parallel > 0)
+        run.parallel = new Parallel(run, f, parallel);
+      if (disasm) {
+        for (Chunk c: BytecodeCompiler.compile(f))
+          System.out.println(Bytecode.disassemble(c));
+        return 0;
+      }
+      if (engine.equals("closure"))
+        ClosureCompiler.run(run, f);
+      else if (engine.equals("vm"))
+        VM.run(run, f);
+      else {
+        if (engine.equals("jit"))
+          Jit.compile(run, f);
+        Interp.run(run, f);
+      }
+      out.flush();
+      return 0;
     } catch (Exception e) {
-      System.out.println("error: " + e.getMessage());
-      System.exit(1);
+      out.println("error: " + e.getMessage());
+      out.flush();
+      return 1;
     } catch (Error e) {
-      System.out.println("error: " + e.getMessage());
-      System.exit(1);
+      out.println("error: " + e.getMessage());
+      out.flush();
+      return 1;
+    } finally {
+      // at exit, once the output and the error message are flushed
+      if (run != null && run.memo != null && !disasm)
+        run.memo.report(err);
+      if (run != null)
+        run.close();
+    }
+  }
+
+  static File parse(String file) throws Exception {
+    try (Reader reader = new FileReader(file)) {
+      MyParser parser = new MyParser(new MyLexer(reader));
+      return (File) parser.parse().value;
+    }
+  }
+
+  // a number of threads, between 1 and the limit of ForkJoinPool; -1 if
+  // malformed
+  static int threads(String s) {
+    try {
+      int n = Integer.parseInt(s);
+      return n >= 1 && n <= 0x7fff ? n : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  // a size in bytes, with an optional suffix; -1 if malformed
+  static long size(String s) {
+    int shift = 0;
+    switch (s.isEmpty() ? ' ' : Character.toLowerCase(s.charAt(s.length() - 1))) {
+    case 'k': shift = 10; break;
+    case 'm': shift = 20; break;
+    case 'g': shift = 30; break;
+    default:
+    }
+    if (shift > 0)
+      s = s.substring(0, s.length() - 1);
+    try {
+      return Long.parseLong(s) << shift;
+    } catch (NumberFormatException e) {
+      return -1;
     }
   }
 
@@ -0,0 +1,167 @@
+package mini_python;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* Memoization of the calls to pure functions (see Purity), enabled with
+   --memo[=ENTRIES] for the interp engine.
+
+   The results are kept in a cache keyed by the function and the values of
+   the arguments. It holds at most `capacity` entries, and evicts the least
+   recently used one when full. Only the calls whose arguments and result
+   are not lists are cached: a list may be modified, so it is neither a
+   valid key nor a result that can be shared between calls. An error is
+   not cached; the next call raises it again.
+
+   The number of calls and hits of each function, and an estimate of the
+   memory taken by the cache, are reported on stderr at exit.
+
+   The cache is shared by the threads of Parallel, so it is only accessed
+   under its lock; the calls themselves are made without it. */
+
+class Memo {
+
+  static final int CAPACITY = 1 << 16;
+
+  final Run run;
+  final Purity purity;
+  final int capacity;
+  final LinkedHashMap<Key, Value> cache;
+  // per function: the calls that could be cached, and the hits
+  final LinkedHashMap<Def, long[]> stats = new LinkedHashMap<Def, long[]>();
+  long bytes = 0; // the estimated size of the entries of the cache
+  long evictions = 0;
+
+  Memo(Run run, File f, int capacity) {
+    this.run = run;
+    this.purity = new Purity(f);
+    this.capacity = capacity;
+    this.cache = new LinkedHashMap<Key, Value>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Value> e) {
+        if (size() <= Memo.this.capacity)
+          return false;
+        bytes -= Memo.size(e.getKey(), e.getValue());
+        evictions++;
+        return true;
+      }
+    };
+  }
+
+  boolean isPure(Def d) {
+    return purity.isPure(d);
+  }
+
+  // a call to the pure function d
+  Value call(Def d, Value[] args) {
+    for (Value v: args)
+      if (v.tag == Value.LIST)
+        return Interp.call(run, d, args);
+    Key k = new Key(d, args);
+    Value r;
+    synchronized (this) {
+      long[] s = stats.get(d);
+      if (s == null)
+        stats.put(d, s = new long[2]);
+      s[0]++;
+      r = cache.get(k);
+      if (r != null) {
+        s[1]++;
+        return r;
+      }
+    }
+    r = Interp.call(run, d, args);
+    if (r.tag != Value.LIST) {
+      k = new Key(d, args.clone()); // the caller may reuse args
+      synchronized (this) {
+        // another thread may have cached it meanwhile
+        if (cache.put(k, r) == null)
+          bytes += size(k, r);
+      }
+    }
+    return r;
+  }
+
+  static final class Key {
+    final Def d;
+    final Value[] args;
+    final int hash;
+
+    Key(Def d, Value[] args) {
+      this.d = d;
+      this.args = args;
+      int h = System.identityHashCode(d);
+      for (Value v: args)
+        h = 31 * h + hash(v);
+      this.hash = h;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key))
+        return false;
+      Key k = (Key) o;
+      if (d != k.d || hash != k.hash)
+        return false;
+      for (int i = 0; i < args.length; i++)
+        if (!Value.equal(args[i], k.args[i]))
+          return false;
+      return true;
+    }
+  }
+
+  // the hash of a value other than a list, consistent with Value.equal
+  static int hash(Value v) {
+    switch (v.tag) {
+    case Value.BOOL:
+      return ((Vbool) v).b ? 1231 : 1237;
+    case Value.INT:
+      return v instanceof Vint ? Long.hashCode(((Vint) v).n) : v.hashCode();
+    case Value.STRING:
+      return v.hashCode();
+    default:
+      return 0;
+    }
+  }
+
+  /* the approximate size in bytes of an entry: the entry of the map, the
+     key with its array, and the values */
+  static long size(Key k, Value r) {
+    long n = 40 + 24 + 16 + 4 * k.args.length + size(r);
+    for (Value v: k.args)
+      n += size(v);
+    return n;
+  }
+
+  static long size(Value v) {
+    if (v.tag == Value.STRING)
+      return 32 + 40 + 2L * ((Vstring) v).length;
+    return 24;
+  }
+
+  void report(PrintStream out) {
+    long calls = 0, hits = 0;
+    for (Map.Entry<Def, long[]> e: stats.entrySet()) {
+      long[] s = e.getValue();
+      out.println("memo: " + e.getKey().f.id + ": " + s[0] + " calls, "
+                  + s[1] + " hits (" + percent(s[1], s[0]) + ")");
+      calls += s[0];
+      hits += s[1];
+    }
+    out.println("memo: total: " + calls + " calls, " + hits + " hits ("
+                + percent(hits, calls) + "), " + cache.size() + " entries, "
+                + evictions + " evictions, about " + (bytes + 1023) / 1024
+                + " KB");
+  }
+
+  static String percent(long n, long total) {
+    return total == 0 ? "-" : String.format("%.1f%%", 100.0 * n / total);
+  }
+}
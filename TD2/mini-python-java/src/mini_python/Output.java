@@ -0,0 +1,235 @@
+package mini_python;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/* The output of `print` (see Run).
+
+   Values are written straight into the buffer, without building their
+   string first: integers are formatted in place, ropes are written piece
+   by piece, and lists are traversed with an explicit stack, so that
+   printing a long or deeply nested list takes no extra memory besides
+   this stack. A list which contains itself is printed `[...]` where it
+   appears inside itself, as in Python.
+
+   The characters are kept in a buffer, and only encoded and written out
+   when it is full, or when `flush` is called: when the program ends, and
+   before an error message, so that the messages printed by Main still come
+   after the output that precedes them. Unlike System.out, a line does not
+   cost a system call, and there is no locking.
+
+   The characters are encoded with the encoding of System.out. As with
+   System.out, write errors are ignored.
+
+   An output without a stream keeps everything in memory, until it is
+   copied into another output (see Parallel and Batch). */
+
+class Output {
+
+  static final int SIZE = 1 << 13;
+
+  private final OutputStream os;
+  private final CharsetEncoder encoder;
+  private char[] chars = new char[SIZE];
+  private int length = 0;
+  private final ByteBuffer bytes;
+  private static final String NEWLINE = System.lineSeparator();
+
+  // an output in memory
+  Output() {
+    this.os = null;
+    this.encoder = null;
+    this.bytes = null;
+  }
+
+  Output(OutputStream os, Charset cs) {
+    this.os = os;
+    this.encoder = cs.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.bytes = ByteBuffer.allocate((int) Math.ceil(SIZE * encoder.maxBytesPerChar()));
+  }
+
+  // the standard output
+  static Output stdout() {
+    return new Output(new FileOutputStream(FileDescriptor.out), charset());
+  }
+
+  // the encoding System.out uses
+  static Charset charset() {
+    String enc = System.getProperty("sun.stdout.encoding");
+    return enc != null && Charset.isSupported(enc) ? Charset.forName(enc)
+                                                   : Charset.defaultCharset();
+  }
+
+  void print(String s) {
+    int n = s.length();
+    for (int i = 0; i < n; ) {
+      if (length == chars.length)
+        full();
+      int k = Math.min(n - i, chars.length - length);
+      s.getChars(i, i + k, chars, length);
+      length += k;
+      i += k;
+    }
+  }
+
+  // what was printed into o, which is in memory
+  void print(Output o) {
+    for (int i = 0; i < o.length; ) {
+      if (length == chars.length)
+        full();
+      int k = Math.min(o.length - i, chars.length - length);
+      System.arraycopy(o.chars, i, chars, length, k);
+      length += k;
+      i += k;
+    }
+  }
+
+  void print(char c) {
+    if (length == chars.length)
+      full();
+    chars[length++] = c;
+  }
+
+  // the digits of n, written from the end, without allocation
+  void print(long n) {
+    if (chars.length - length < 20)
+      full();
+    int digits = 1;
+    for (long m = n / 10; m != 0; m /= 10)
+      digits++;
+    if (n < 0)
+      chars[length++] = '-';
+    int i = length + digits;
+    length = i;
+    // on negative numbers, so that Long.MIN_VALUE works
+    if (n > 0)
+      n = -n;
+    do {
+      chars[--i] = (char) ('0' - n % 10);
+      n /= 10;
+    } while (n != 0);
+  }
+
+  void print(Value v) {
+    if (v instanceof Vint)
+      print(((Vint) v).n);
+    else if (v instanceof Vstring)
+      ((Vstring) v).print(this);
+    else if (v instanceof Vlist)
+      print((Vlist) v);
+    else
+      print(v.toString());
+  }
+
+  void println(Value v) {
+    print(v);
+    print(NEWLINE);
+  }
+
+  void println(String s) {
+    print(s);
+    print(NEWLINE);
+  }
+
+  private void print(Vlist root) {
+    // the lists being printed, and the index of their next element
+    Vlist[] lists = new Vlist[8];
+    int[] next = new int[8];
+    int depth = 0;
+    // the same lists, once a list is found inside a list
+    IdentityHashMap<Vlist, Boolean> path = null;
+    lists[depth++] = root;
+    print('[');
+    while (depth > 0) {
+      Vlist l = lists[depth - 1];
+      int i = next[depth - 1];
+      if (i == l.size()) {
+        print(']');
+        lists[--depth] = null;
+        next[depth] = 0;
+        if (path != null)
+          path.remove(l);
+        continue;
+      }
+      next[depth - 1] = i + 1;
+      if (i > 0)
+        print(", ");
+      if (l.unboxed()) {
+        print(l.intAt(i));
+        continue;
+      }
+      Value v = l.get(i);
+      if (!(v instanceof Vlist)) {
+        print(v);
+        continue;
+      }
+      Vlist m = (Vlist) v;
+      if (path == null) {
+        path = new IdentityHashMap<Vlist, Boolean>();
+        for (int k = 0; k < depth; k++)
+          path.put(lists[k], Boolean.TRUE);
+      }
+      if (path.containsKey(m)) {
+        print("[...]");
+        continue;
+      }
+      path.put(m, Boolean.TRUE);
+      if (depth == lists.length) {
+        lists = Arrays.copyOf(lists, 2 * depth);
+        next = Arrays.copyOf(next, 2 * depth);
+      }
+      lists[depth++] = m;
+      print('[');
+    }
+  }
+
+  void flush() {
+    if (os == null)
+      return;
+    drain(true);
+    try {
+      os.flush();
+    } catch (IOException e) {
+      // ignored, as by System.out
+    }
+  }
+
+  // makes room in the buffer
+  private void full() {
+    if (os == null)
+      chars = Arrays.copyOf(chars, 2 * chars.length);
+    else
+      drain(false);
+  }
+
+  // encodes and writes the buffer; `end` when no more characters follow
+  private void drain(boolean end) {
+    CharBuffer in = CharBuffer.wrap(chars, 0, length);
+    bytes.clear();
+    encoder.encode(in, bytes, end);
+    if (end) {
+      encoder.flush(bytes);
+      encoder.reset();
+    }
+    // a surrogate pair cut by the end of the buffer is kept for later
+    int rest = in.remaining();
+    System.arraycopy(chars, in.position(), chars, 0, rest);
+    length = rest;
+    try {
+      os.write(bytes.array(), 0, bytes.position());
+    } catch (IOException e) {
+      // ignored, as by System.out
+    }
+  }
+}
@@ -0,0 +1,480 @@
+package mini_python;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/* Parallel execution, enabled with --parallel[=THREADS] for the interp
+   engine, of `for` loops, of pairs of calls and of `pmap`.
+
+   Loops.
+
+   A loop runs in parallel when its iterations are independent, which this
+   visitor checks on its body, conservatively:
+
+   - it does not modify a list (no `l[i] = v`, no `append`), does not
+     return, and only calls pure functions (see Purity) and the builtins
+     `len`, `list`, `range`, and `pmap` with a pure function. So the only effect of an iteration, besides
+     printing, is to assign variables;
+
+   - every variable assigned in the body (the loop variable included) is
+     assigned before being read in the same iteration: an iteration never
+     reads what a previous one wrote. The other variables are only read.
+
+   The iterations are then cut into chunks, which run on a ForkJoinPool.
+   Each chunk runs its iterations in order, in its own copy of the frame,
+   and prints into its own Output, in memory. Once all chunks are done,
+   their outputs are copied in order, and the variables assigned by the
+   loop get the values of the last chunk that assigned them. Hence the
+   output and the variables are those of the sequential loop.
+
+   If a chunk fails, the output of the chunks before it, and of its own
+   iterations up to the error, is printed before the error is raised, as
+   in a sequential loop. The later chunks may have run meanwhile, but they
+   have no visible effects; a later iteration which does not terminate
+   still blocks the loop, though.
+
+   Only the outermost such loops run in parallel. A loop reached from a
+   chunk (in a pure function) runs sequentially, and so does a loop with
+   fewer than two elements. Lists and strings may be shared between the
+   chunks: they only read them, except for the in-place concatenation of
+   lists and the flattening of ropes, which are thread-safe (see Vlist and
+   Vstring), as is the cache of Memo.
+
+   Calls. A binary operation `f(...) op g(...)` (other than `and` and `or`)
+   where f and g are pure, and one of them is not simple (see Purity), so
+   that it may take time, as in `fib(n - 1) + fib(n - 2)`, evaluates its
+   two calls in parallel: the arguments of f are evaluated, the call to f
+   is forked as a task of the pool, and the current thread evaluates the
+   arguments of g and calls g meanwhile, before joining f. The first error
+   in the order of the sequential evaluation is raised.
+
+   Each fork halves the work, roughly, in a divide-and-conquer function.
+   The tasks are deep enough when they are about 16 per thread: beyond
+   `depth` nested forks, the calls are evaluated sequentially by Interp,
+   which is cheaper than a task for the small calls near the leaves.
+
+   pmap. `pmap(f, l)` applies f to the elements of l in parallel when f is
+   pure: l is cut into chunks, as the iterations of a loop, and the error
+   raised is the one of the first element that fails. An impure f is
+   applied sequentially, in order. */
+
+class Parallel implements Visitor {
+
+  // the number of chunks per thread, to balance iterations of uneven cost
+  static final int CHUNKS = 4;
+
+  final Run run;
+  final Purity purity;
+  final ForkJoinPool pool;
+  final int depth; // the maximal number of nested forks of calls
+  // the parallel loops, and the slots of the variables their bodies assign
+  final IdentityHashMap<Sfor, int[]> loops = new IdentityHashMap<Sfor, int[]>();
+
+  /* What the visitor collects. The code is traversed to mark the parallel
+     loops and operations; the body of a loop is `checking` while its
+     independence is checked. */
+  boolean checking = false;
+  boolean effects; // some call may have effects
+  boolean independent;
+  BitSet assigned; // the variables definitely assigned at this point
+  BitSet written; // the variables assigned anywhere
+  BitSet read; // the variables read when they may not be assigned yet
+
+  Parallel(Run run, File f, int threads) {
+    this.run = run;
+    this.purity = new Purity(f);
+    this.pool = new ForkJoinPool(threads, Worker::new, null, false);
+    // 2^depth tasks, that is about 16 per thread
+    this.depth = 35 - Integer.numberOfLeadingZeros(threads);
+    f.s.accept(this);
+    for (Def d: f.l)
+      d.s.accept(this);
+  }
+
+  boolean independent(Sfor s) {
+    checking = independent = true;
+    effects = false;
+    assigned = new BitSet();
+    written = new BitSet();
+    read = new BitSet();
+    assigned.set(s.x.slot);
+    written.set(s.x.slot);
+    s.s.accept(this);
+    checking = false;
+    return independent && !effects && !read.intersects(written);
+  }
+
+  // the pure function called by e, if it is a call with the right arity
+  Def callee(Expr e) {
+    if (!(e instanceof Ecall))
+      return null;
+    Ecall c = (Ecall) e;
+    switch (c.f.id) {
+    case "len":
+    case "list":
+    case "range":
+    case "append":
+    case "pmap":
+      return null;
+    default:
+      Def d = purity.functions.get(c.f.id);
+      return d != null && d.l.length == c.l.length && purity.isPure(d) ? d
+                                                                       : null;
+    }
+  }
+
+  // a thread of the pool, with the number of forks of the task it runs
+  static final class Worker extends ForkJoinWorkerThread {
+    int depth = 0;
+
+    Worker(ForkJoinPool pool) {
+      super(pool);
+    }
+  }
+
+  // whether a parallel operation should fork at this point
+  boolean forks() {
+    Thread t = Thread.currentThread();
+    return !(t instanceof Worker) || ((Worker) t).depth < depth;
+  }
+
+  // e1 op e2, where the operation e is parallel
+  Value fork(Interp ctx, Ebinop e) {
+    Thread t = Thread.currentThread();
+    if (!(t instanceof Worker)) {
+      // the evaluation moves into the pool, and this thread waits for it
+      Task r = new Task(0, () -> fork(ctx, e));
+      pool.invoke(r);
+      return r.result();
+    }
+    Worker w = (Worker) t;
+    int outer = w.depth;
+    Ecall c1 = (Ecall) e.e1, c2 = (Ecall) e.e2;
+    Value[] args1 = args(ctx, c1);
+    Def d1 = run.functions.get(c1.f.id);
+    Task t1 = new Task(outer + 1, () -> Interp.apply(run, d1, args1));
+    t1.fork();
+    Value v2;
+    try {
+      Value[] args2 = args(ctx, c2);
+      w.depth = outer + 1;
+      v2 = Interp.apply(run, run.functions.get(c2.f.id), args2);
+    } catch (RuntimeException | Error err) {
+      // the error of the first call comes first
+      t1.join();
+      t1.result();
+      throw err;
+    } finally {
+      w.depth = outer;
+    }
+    t1.join();
+    return Interp.binop(e.op, t1.result(), v2);
+  }
+
+  static Value[] args(Interp ctx, Ecall c) {
+    Value[] args = new Value[c.l.length];
+    for (int i = 0; i < args.length; i++)
+      args[i] = ctx.evalExpr(c.l[i]);
+    return args;
+  }
+
+  /* pmap(d, l), where d is pure: the list is cut into chunks, as a loop,
+     which run as tasks, and the first error in the order of the list is
+     raised. null when it must run sequentially. */
+  Value map(Def d, Vlist l) {
+    int n = l.size();
+    if (n < 2 || !purity.isPure(d))
+      return null;
+    Thread t = Thread.currentThread();
+    int outer = t instanceof Worker ? ((Worker) t).depth : 0;
+    Value[] r = new Value[n];
+    int k = Math.min(n, CHUNKS * pool.getParallelism());
+    Task[] tasks = new Task[k];
+    for (int i = 0; i < k; i++) {
+      int lo = (int) ((long) n * i / k), hi = (int) ((long) n * (i + 1) / k);
+      tasks[i] = new Task(outer, () -> {
+        for (int j = lo; j < hi; j++)
+          r[j] = Interp.apply(run, d, new Value[] { l.get(j) });
+        return null;
+      });
+    }
+    if (t instanceof Worker)
+      ForkJoinTask.invokeAll(tasks);
+    else
+      pool.invoke(new Task(0, () -> {
+        ForkJoinTask.invokeAll(tasks);
+        return null;
+      }));
+    for (Task task: tasks)
+      task.result();
+    return new Vlist(r);
+  }
+
+  // a computation run by the pool, at a given depth of forks
+  static final class Task extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    final int depth;
+    final Supplier<Value> f;
+    Value value = null;
+    Throwable error = null;
+
+    Task(int depth, Supplier<Value> f) {
+      this.depth = depth;
+      this.f = f;
+    }
+
+    @Override
+    protected void compute() {
+      Worker w = (Worker) Thread.currentThread();
+      int outer = w.depth;
+      w.depth = depth;
+      try {
+        value = f.get();
+      } catch (RuntimeException | Error e) {
+        error = e; // raised by `result`, and not by join, which wraps it
+      } finally {
+        w.depth = outer;
+      }
+    }
+
+    Value result() {
+      raise(error);
+      return value;
+    }
+  }
+
+  // raises e, if any
+  static void raise(Throwable e) {
+    if (e instanceof RuntimeException)
+      throw (RuntimeException) e;
+    if (e != null)
+      throw (Error) e;
+  }
+
+  /* runs the loop s over the list l, in the frame of ctx; returns false
+     when it must run sequentially instead */
+  boolean run(Interp ctx, Sfor s, Vlist l) {
+    int n = l.size();
+    if (n < 2 || ForkJoinTask.inForkJoinPool())
+      return false;
+    int[] slots = loops.get(s);
+    int k = Math.min(n, CHUNKS * pool.getParallelism());
+    ArrayList<Chunk> chunks = new ArrayList<Chunk>(k);
+    for (int i = 0; i < k; i++)
+      chunks.add(new Chunk(ctx, s, l, slots, (int) ((long) n * i / k),
+                           (int) ((long) n * (i + 1) / k)));
+    pool.invokeAll(chunks);
+    for (Chunk c: chunks) {
+      ctx.out.print(c.ctx.out);
+      raise(c.error);
+    }
+    for (int x: slots)
+      for (int i = k - 1; i >= 0; i--) {
+        Value v = chunks.get(i).ctx.vars[x];
+        if (v != null) {
+          ctx.vars[x] = v;
+          break;
+        }
+      }
+    return true;
+  }
+
+  // the iterations lo..hi-1 of a loop
+  static final class Chunk implements Callable<Void> {
+    final Interp ctx;
+    final Sfor s;
+    final Vlist l;
+    final int lo, hi;
+    Throwable error = null;
+
+    Chunk(Interp parent, Sfor s, Vlist l, int[] slots, int lo, int hi) {
+      this.ctx = new Interp(parent.run, 0);
+      ctx.vars = parent.vars.clone();
+      for (int x: slots)
+        ctx.vars[x] = null;
+      ctx.out = new Output();
+      this.s = s;
+      this.l = l;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    @Override
+    public Void call() {
+      try {
+        for (int i = lo; i < hi; i++) {
+          ctx.vars[s.x.slot] = l.get(i);
+          s.s.accept(ctx);
+        }
+      } catch (RuntimeException | Error e) {
+        error = e;
+      }
+      return null;
+    }
+  }
+
+  // constants read nothing
+  public void visit(Cnone c) {
+  }
+  public void visit(Cbool c) {
+  }
+  public void visit(Cstring c) {
+  }
+  public void visit(Cint c) {
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    boolean outer = effects;
+    effects = false;
+    e.e1.accept(this);
+    e.e2.accept(this);
+    if (!effects && e.op != Binop.Band && e.op != Binop.Bor) {
+      Def d1 = callee(e.e1), d2 = callee(e.e2);
+      if (d1 != null && d2 != null
+          && !(purity.isSimple(d1) && purity.isSimple(d2)))
+        e.parallel = true;
+    }
+    effects |= outer;
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    e.e.accept(this);
+  }
+
+  @Override
+  public void visit(Eident e) {
+    if (checking && !assigned.get(e.x.slot))
+      read.set(e.x.slot);
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+    switch (e.f.id) {
+    case "len":
+    case "list":
+    case "range":
+      break;
+    case "append":
+      effects = true;
+      break;
+    case "pmap":
+      Def f = e.l.length == 2 && e.l[0] instanceof Eident
+              ? purity.functions.get(((Eident) e.l[0]).x.id) : null;
+      if (f == null || !purity.isPure(f))
+        effects = true;
+      break;
+    default:
+      Def d = purity.functions.get(e.f.id);
+      if (d == null || !purity.isPure(d))
+        effects = true;
+    }
+  }
+
+  @Override
+  public void visit(Eget e) {
+    e.e1.accept(this);
+    e.e2.accept(this);
+  }
+
+  @Override
+  public void visit(Elist e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    s.e.accept(this);
+    if (!checking) {
+      s.s1.accept(this);
+      s.s2.accept(this);
+      return;
+    }
+    BitSet before = (BitSet) assigned.clone();
+    s.s1.accept(this);
+    BitSet after1 = assigned;
+    assigned = before;
+    s.s2.accept(this);
+    // assigned after the `if` when assigned by both branches
+    assigned.and(after1);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    independent = false;
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    s.e.accept(this);
+    if (checking) {
+      assigned.set(s.x.slot);
+      written.set(s.x.slot);
+    }
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    for (Stmt st: s.l)
+      st.accept(this);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    s.e.accept(this);
+    if (!checking) {
+      // the outermost independent loops
+      if (independent(s)) {
+        s.parallel = true;
+        loops.put(s, written.stream().toArray());
+      } else
+        s.s.accept(this);
+      return;
+    }
+    // the body may not run, so what it assigns is not assigned after it
+    BitSet before = (BitSet) assigned.clone();
+    assigned.set(s.x.slot);
+    written.set(s.x.slot);
+    s.s.accept(this);
+    assigned = before;
+  }
+
+  @Override
+  public void visit(Seval s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sset s) {
+    independent = false;
+    s.e1.accept(this);
+    s.e2.accept(this);
+    s.e3.accept(this);
+  }
+}
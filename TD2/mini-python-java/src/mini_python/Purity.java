@@ -0,0 +1,214 @@
+package mini_python;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/* Analysis of the effects of functions.
+
+   A function is pure when it does not print, does not modify a list (with
+   `l[i] = v` or `append`), and only calls pure functions (the builtins
+   other than `append` are pure). Since functions only see their
+   parameters, the result of a pure function only depends on its arguments,
+   and calling it has no visible effect besides raising an error; so its
+   results can be cached (see Memo). Recursion is allowed: the set of pure
+   functions is computed as a greatest fixpoint.
+
+   A function is simple when it is pure, has no `for` loop, does not call
+   `range`, and only calls simple functions, without recursion. The
+   evaluation of a call to a simple function always terminates, so it can
+   be done at load time (see Fold). It can still take a time exponential
+   in the size of the code, since each function may call the next one
+   several times, so Fold bounds it.
+
+   When several functions have the same name, calls refer to the last one,
+   as in Interp. */
+
+class Purity implements Visitor {
+
+  // the functions of the program, by name
+  final HashMap<String, Def> functions = new HashMap<String, Def>();
+  final HashSet<Def> pure = new HashSet<Def>();
+  final HashSet<Def> simple = new HashSet<Def>();
+
+  // what the visitor collects on the body of a function
+  final HashMap<Def, HashSet<Def>> calls = new HashMap<Def, HashSet<Def>>();
+  HashSet<Def> called;
+  boolean effects, loops;
+
+  Purity(File f) {
+    for (Def d: f.l)
+      functions.put(d.f.id, d);
+    HashSet<Def> looping = new HashSet<Def>();
+    for (Def d: functions.values()) {
+      called = new HashSet<Def>();
+      effects = loops = false;
+      d.s.accept(this);
+      calls.put(d, called);
+      if (!effects)
+        pure.add(d);
+      if (loops)
+        looping.add(d);
+    }
+    // remove the functions calling impure ones, until nothing changes
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Def d: functions.values())
+        if (pure.contains(d) && !pure.containsAll(calls.get(d))) {
+          pure.remove(d);
+          changed = true;
+        }
+    }
+    for (Def d: functions.values())
+      if (pure.contains(d) && !looping.contains(d))
+        simple(d, new HashSet<Def>(), looping);
+  }
+
+  boolean isPure(Def d) {
+    return pure.contains(d);
+  }
+
+  boolean isSimple(Def d) {
+    return simple.contains(d);
+  }
+
+  /* tells whether d is simple; `path` holds the functions being checked,
+     to detect recursion, and `rejected` the functions known not to be */
+  boolean simple(Def d, HashSet<Def> path, HashSet<Def> rejected) {
+    if (simple.contains(d))
+      return true;
+    if (rejected.contains(d) || !pure.contains(d) || !path.add(d))
+      return false;
+    for (Def g: calls.get(d))
+      if (!simple(g, path, rejected)) {
+        rejected.add(d);
+        path.remove(d);
+        return false;
+      }
+    path.remove(d);
+    simple.add(d);
+    return true;
+  }
+
+  // constants have no effects
+  public void visit(Cnone c) {
+  }
+  public void visit(Cbool c) {
+  }
+  public void visit(Cstring c) {
+  }
+  public void visit(Cint c) {
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    e.e1.accept(this);
+    e.e2.accept(this);
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    e.e.accept(this);
+  }
+
+  @Override
+  public void visit(Eident e) {
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+    switch (e.f.id) {
+    case "len":
+    case "list":
+      break;
+    case "range":
+      loops = true; // its cost depends on its argument
+      break;
+    case "append":
+      effects = true;
+      break;
+    case "pmap":
+      loops = true; // its cost depends on the list
+      Def f = e.l.length == 2 && e.l[0] instanceof Eident
+              ? functions.get(((Eident) e.l[0]).x.id) : null;
+      if (f == null)
+        effects = true; // an error
+      else
+        called.add(f);
+      break;
+    default:
+      Def d = functions.get(e.f.id);
+      if (d == null)
+        effects = true; // an error, which we do not try to predict
+      else
+        called.add(d);
+    }
+  }
+
+  @Override
+  public void visit(Eget e) {
+    e.e1.accept(this);
+    e.e2.accept(this);
+  }
+
+  @Override
+  public void visit(Elist e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    s.e.accept(this);
+    s.s1.accept(this);
+    s.s2.accept(this);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    effects = true;
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    for (Stmt st: s.l)
+      st.accept(this);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    loops = true;
+    s.e.accept(this);
+    s.s.accept(this);
+  }
+
+  @Override
+  public void visit(Seval s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sset s) {
+    effects = true;
+  }
+}
@@ -0,0 +1,167 @@
+package mini_python;
+
+import java.util.HashMap;
+
+/* Resolution of local variables.
+
+   This pass runs once, after parsing. Each scope (the body of a function,
+   or the block of global statements) gets a frame, that is an array of
+   values, and each variable of that scope is given an index in this frame.
+   The index is stored in the `slot` field of every occurrence of the
+   identifier, so that the interpreter never has to look up a name.
+
+   Formal parameters come first, so that the i-th argument of a call
+   goes into the slot of the i-th parameter. A variable that is read but
+   never assigned still gets a slot: it stays empty and reading it reports
+   an unbound variable, as before.
+
+   The pass also marks the tail calls of a function to itself, that is the
+   statements `return f(...)` in the body of `f` with the right number of
+   arguments. The engines run them as jumps back to the start of the body,
+   reusing the frame, so that such recursions run in constant stack. When
+   several functions have the same name, only the last one (the one that
+   calls refer to) gets this treatment. */
+
+class Resolver implements Visitor {
+
+  // the variables of the scope being resolved
+  final HashMap<String, Integer> slots = new HashMap<String, Integer>();
+  // the function being resolved, when its self-calls are tail calls
+  Def self = null;
+
+  int slot(Ident x) {
+    Integer i = slots.get(x.id);
+    if (i == null) {
+      i = slots.size();
+      slots.put(x.id, i);
+    }
+    x.slot = i;
+    return i;
+  }
+
+  static void resolve(File f) {
+    HashMap<String, Def> last = new HashMap<String, Def>();
+    for (Def d: f.l)
+      last.put(d.f.id, d);
+    for (Def d: f.l)
+      resolve(d, last.get(d.f.id) == d);
+    Resolver r = new Resolver();
+    f.s.accept(r);
+    f.frameSize = r.slots.size();
+  }
+
+  static void resolve(Def d, boolean self) {
+    Resolver r = new Resolver();
+    if (self)
+      r.self = d;
+    for (Ident x: d.l)
+      r.slot(x);
+    d.s.accept(r);
+    d.frameSize = r.slots.size();
+  }
+
+  // constants have no variables
+  public void visit(Cnone c) {
+  }
+  public void visit(Cbool c) {
+  }
+  public void visit(Cstring c) {
+  }
+  public void visit(Cint c) {
+  }
+
+  // expressions
+
+  @Override
+  public void visit(Ecst e) {
+  }
+
+  @Override
+  public void visit(Ebinop e) {
+    e.e1.accept(this);
+    e.e2.accept(this);
+  }
+
+  @Override
+  public void visit(Eunop e) {
+    e.e.accept(this);
+  }
+
+  @Override
+  public void visit(Eident e) {
+    slot(e.x);
+  }
+
+  @Override
+  public void visit(Ecall e) {
+    // e.f names a function, not a variable
+    for (Expr e1: e.l)
+      e1.accept(this);
+  }
+
+  @Override
+  public void visit(Eget e) {
+    e.e1.accept(this);
+    e.e2.accept(this);
+  }
+
+  @Override
+  public void visit(Elist e) {
+    for (Expr e1: e.l)
+      e1.accept(this);
+  }
+
+  // statements
+
+  @Override
+  public void visit(Sif s) {
+    s.e.accept(this);
+    s.s1.accept(this);
+    s.s2.accept(this);
+  }
+
+  @Override
+  public void visit(Sreturn s) {
+    s.e.accept(this);
+    if (self != null && s.e instanceof Ecall) {
+      Ecall c = (Ecall) s.e;
+      s.tail = c.f.id == self.f.id && c.l.length == self.l.length;
+    }
+  }
+
+  @Override
+  public void visit(Sassign s) {
+    s.e.accept(this);
+    slot(s.x);
+  }
+
+  @Override
+  public void visit(Sprint s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sblock s) {
+    for (Stmt st: s.l)
+      st.accept(this);
+  }
+
+  @Override
+  public void visit(Sfor s) {
+    s.e.accept(this);
+    slot(s.x);
+    s.s.accept(this);
+  }
+
+  @Override
+  public void visit(Seval s) {
+    s.e.accept(this);
+  }
+
+  @Override
+  public void visit(Sset s) {
+    s.e1.accept(this);
+    s.e2.accept(this);
+    s.e3.accept(this);
+  }
+}
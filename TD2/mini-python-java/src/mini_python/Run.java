@@ -0,0 +1,38 @@
+package mini_python;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/* The state of one execution of a program: its functions, the output of
+   `print`, and the cache of Memo and the runner of Parallel when they are
+   enabled. The engines get it from Main, instead of static fields, so that
+   several programs can run at once in the same JVM, each with its own Run
+   (see Batch). A Run does not change once the program starts, so that the
+   threads of Parallel can read it. */
+
+class Run {
+
+  final Map<String, Def> functions;
+  final Output out;
+  Memo memo = null;
+  Parallel parallel = null;
+
+  Run(File f, Output out) {
+    this.functions = functions(f);
+    this.out = out;
+  }
+
+  // the functions of f, by name; calls refer to the last definition
+  static Map<String, Def> functions(File f) {
+    HashMap<String, Def> functions = new HashMap<String, Def>();
+    for (Def d: f.l)
+      functions.put(d.f.id, d);
+    return Map.copyOf(functions);
+  }
+
+  // stops the threads of Parallel, if any
+  void close() {
+    if (parallel != null)
+      parallel.pool.shutdown();
+  }
+}
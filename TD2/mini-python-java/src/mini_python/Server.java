@@ -0,0 +1,118 @@
+package mini_python;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/* A server which runs programs for clients, so that they do not pay for
+   the start of a JVM, and run on code the JIT has already compiled. It is
+   started with --server=SOCKET, and listens on the Unix domain socket at
+   this path, which it removes when it stops; the other options (engine,
+   memo, ...) apply to all the programs. Up to --jobs=N programs run at
+   once, each as in batch mode (see Batch).
+
+   A client (see Client, and the script minipython-client) sends the
+   absolute path of a program, ended by a newline, in UTF-8. The server
+   answers with frames, as the program runs: a byte STDOUT or STDERR, the
+   length of the data as an int, and the data, encoded as the server
+   prints; and last the byte EXIT followed by the exit status as an int. A
+   connection can be used for several programs, one after the other. */
+
+class Server {
+
+  static final int EXIT = 0, STDOUT = 1, STDERR = 2;
+
+  static void serve(String socket) throws IOException {
+    Path path = Paths.get(socket);
+    // the socket of a server which did not stop properly
+    Files.deleteIfExists(path);
+    ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(path));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        // nothing more to do
+      }
+    }));
+    ExecutorService pool = Executors.newFixedThreadPool(Batch.jobs);
+    while (true) {
+      SocketChannel client = server.accept();
+      pool.execute(() -> serve(client));
+    }
+  }
+
+  // the programs of a client, until it closes the connection
+  static void serve(SocketChannel client) {
+    try (client) {
+      InputStream in = new BufferedInputStream(Channels.newInputStream(client));
+      DataOutputStream frames =
+        new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+      String file;
+      while ((file = line(in)) != null) {
+        Output out = new Output(new Frames(frames, STDOUT), Output.charset());
+        PrintStream err = new PrintStream(new Frames(frames, STDERR), true);
+        int status = Main.run(file, out, err);
+        err.flush();
+        frames.writeByte(EXIT);
+        frames.writeInt(status);
+        frames.flush();
+      }
+    } catch (IOException e) {
+      // the client is gone
+    }
+  }
+
+  // a line of UTF-8, without its newline; null at the end of the input
+  static String line(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    for (int b = in.read(); b != '\n'; b = in.read()) {
+      if (b < 0)
+        return null;
+      line.write(b);
+    }
+    return line.toString(StandardCharsets.UTF_8);
+  }
+
+  // the writes to a stream of the program, sent as frames
+  static final class Frames extends OutputStream {
+    final DataOutputStream frames;
+    final int stream;
+
+    Frames(DataOutputStream frames, int stream) {
+      this.frames = frames;
+      this.stream = stream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (len == 0)
+        return;
+      frames.writeByte(stream);
+      frames.writeInt(len);
+      frames.write(b, off, len);
+      frames.flush();
+    }
+  }
+}
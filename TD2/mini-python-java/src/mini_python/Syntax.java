@@ -1,35 +1,43 @@
 package mini_python;
-import java.util.LinkedList;
 
 /* Abstract Syntax of Mini-Python */
 
 /* Parsed trees.
    This is the output of the parser and the input of the type checker. */
 
+/* A location is packed into a long: the line in the high 32 bits and the
+   column in the low 32 bits, so that syntax trees do not carry one more
+   object per identifier. */
 class Location {
-  final int line;
-  final int column;
+  static final long NONE = -1;
 
-  Location(int line, int column) {
-    this.line = line+1;
-    this.column = column;
+  static long of(int line, int column) {
+    return (long) (line + 1) << 32 | column & 0xffffffffL;
   }
 
-  @Override
-  public String toString() {
-    return this.line + ":" + this.column + ":";
+  static int line(long loc) {
+    return (int) (loc >>> 32);
+  }
+
+  static int column(long loc) {
+    return (int) loc;
+  }
+
+  static String toString(long loc) {
+    return line(loc) + ":" + column(loc) + ":";
   }
 }
 
 class Ident {
   final String id;
-  final Location loc;
+  final long loc; // see Location
+  int slot = -1; // index in the frame of the enclosing scope (see Resolver)
 
   Ident(String id) {
     this.id = id;
-    this.loc = null;
+    this.loc = Location.NONE;
   }
-  Ident(String id, Location loc) {
+  Ident(String id, long loc) {
     this.id = id;
     this.loc = loc;
   }
@@ -97,6 +105,7 @@ class Ecst extends Expr {
 class Ebinop extends Expr {
   final Binop op;
   final Expr e1, e2;
+  boolean parallel; // its operands are calls run in parallel, set by Parallel
   Ebinop(Binop op, Expr e1, Expr e2) {
     super();
     this.op = op;
@@ -142,8 +151,8 @@ class Eget extends Expr {
 }
 class Ecall extends Expr {
   final Ident f;
-  final LinkedList<Expr> l;
-  Ecall(Ident f, LinkedList<Expr> l) {
+  final Expr[] l;
+  Ecall(Ident f, Expr[] l) {
     super();
     this.f = f;
     this.l = l;
@@ -152,9 +161,9 @@ class Ecall extends Expr {
   void accept(Visitor v) { v.visit(this); }
 }
 class Elist extends Expr {
-  final LinkedList<Expr> l;
+  final Expr[] l;
 
-  Elist(LinkedList<Expr> l) {
+  Elist(Expr[] l) {
     super();
     this.l = l;
   }
@@ -181,6 +190,7 @@ class Sif extends Stmt {
 }
 class Sreturn extends Stmt {
   final Expr e;
+  boolean tail; // e calls the enclosing function, set by Resolver
 
   Sreturn(Expr e) {
     super();
@@ -211,11 +221,13 @@ class Sprint extends Stmt {
   void accept(Visitor v) { v.visit(this); }
 }
 class Sblock extends Stmt {
-  final LinkedList<Stmt> l;
+  static final Stmt[] EMPTY = new Stmt[0];
+
+  final Stmt[] l;
   Sblock() {
-    this.l = new LinkedList<Stmt>();
+    this.l = EMPTY;
   }
-  Sblock(LinkedList<Stmt> l) {
+  Sblock(Stmt[] l) {
     super();
     this.l = l;
   }
@@ -226,6 +238,7 @@ class Sfor extends Stmt {
   final Ident x;
   final Expr e;
   final Stmt s;
+  boolean parallel; // its iterations are independent, set by Parallel
   Sfor(Ident x, Expr e, Stmt s) {
     super();
     this.x = x;
@@ -261,10 +274,12 @@ class Sset extends Stmt {
 
 class Def {
   final Ident f;
-  final LinkedList<Ident> l; // formal parameters
+  final Ident[] l; // formal parameters
   final Stmt s;
+  int frameSize; // number of local slots, set by Resolver
+  JitFunction jit; // the compiled code, with --engine=jit
 
-  Def(Ident f, LinkedList<Ident> l, Stmt s) {
+  Def(Ident f, Ident[] l, Stmt s) {
     super();
     this.f = f;
     this.l = l;
@@ -273,10 +288,11 @@ class Def {
 }
 
 class File {
-  final LinkedList<Def> l;
+  final Def[] l;
   final Stmt s; // a block of global statements
+  int frameSize; // number of global slots, set by Resolver
 
-  File(LinkedList<Def> l, Stmt s) {
+  File(Def[] l, Stmt s) {
     super();
     this.l = l;
     this.s = s;
@@ -0,0 +1,254 @@
+package mini_python;
+
+import java.util.Arrays;
+
+import static mini_python.Bytecode.*;
+
+/* The virtual machine executing the bytecode (see Bytecode).
+
+   The operand stack is shared by all the calls; each call only uses the
+   part of it above the stack pointer at the time of the call. The locals of
+   a call are in their own array, as in the other engines. A Mini-Python
+   call is a single recursive call to `execute`, so the depth of the
+   recursion is limited by the Java stack, as with the other engines;
+   --stack=SIZE runs the program in HeapVM instead, where it is only
+   limited by a memory budget. */
+
+class VM {
+
+  Value[] stack = new Value[1024];
+  int sp = 0;
+  final Output out; // the output of `print`
+
+  VM(Output out) {
+    this.out = out;
+  }
+
+  static void run(Run run, File f) {
+    if (Main.stackSize > 0) {
+      HeapVM.run(run, f);
+      return;
+    }
+    Chunk[] chunks = BytecodeCompiler.compile(f);
+    Chunk main = chunks[chunks.length - 1];
+    Value r;
+    try {
+      r = new VM(run.out).execute(main, new Value[main.frameSize + main.loops]);
+    } catch (StackOverflowError e) {
+      throw new Error("stack overflow");
+    }
+    // a `return` at toplevel fails, as it does with Interp
+    if (r != null)
+      throw new Return(r);
+  }
+
+  // pmap(g, l): each call runs in a VM of its own
+  Value map(Chunk g, Vlist l) {
+    return Interp.map(l, x -> {
+      Value[] locals = new Value[g.frameSize + g.loops];
+      locals[g.params[0]] = x;
+      return new VM(out).execute(g, locals);
+    });
+  }
+
+  Value execute(Chunk c, Value[] locals) {
+    final int[] code = c.code;
+    final Value[] consts = c.consts;
+    if (sp + c.maxStack > stack.length)
+      stack = Arrays.copyOf(stack, 2 * (sp + c.maxStack));
+    Value[] stack = this.stack;
+    int sp = this.sp;
+    final int[] index = c.loops == 0 ? null : new int[c.loops];
+    int pc = 0;
+    Value v1, v2;
+    while (true) {
+      switch (code[pc++]) {
+      case CONST:
+        stack[sp++] = consts[code[pc++]];
+        break;
+      case LOAD: {
+        int x = code[pc++];
+        Value v = locals[x];
+        if (v == null)
+          throw new Error("unbound variable " + c.names[x]);
+        stack[sp++] = v;
+        break;
+      }
+      case STORE:
+        locals[code[pc++]] = stack[--sp];
+        break;
+      case POP:
+        sp--;
+        break;
+      case ADD:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Badd, v1, v2);
+        break;
+      case SUB:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bsub, v1, v2);
+        break;
+      case MUL:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bmul, v1, v2);
+        break;
+      case DIV:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bdiv, v1, v2);
+        break;
+      case MOD:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bmod, v1, v2);
+        break;
+      case EQ:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Beq, v1, v2);
+        break;
+      case NEQ:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bneq, v1, v2);
+        break;
+      case LT:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Blt, v1, v2);
+        break;
+      case LE:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Ble, v1, v2);
+        break;
+      case GT:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bgt, v1, v2);
+        break;
+      case GE:
+        v2 = stack[--sp]; v1 = stack[sp - 1];
+        stack[sp - 1] = Interp.binop(Binop.Bge, v1, v2);
+        break;
+      case NEG:
+        stack[sp - 1] = Interp.neg(stack[sp - 1]);
+        break;
+      case NOT:
+        stack[sp - 1] = new Vbool(stack[sp - 1].isFalse());
+        break;
+      case JUMP:
+        pc = code[pc];
+        break;
+      case JUMP_IF_FALSE:
+        if (stack[--sp].isFalse())
+          pc = code[pc];
+        else
+          pc++;
+        break;
+      case JUMP_IF_FALSE_OR_POP:
+        if (stack[sp - 1].isFalse())
+          pc = code[pc];
+        else {
+          sp--;
+          pc++;
+        }
+        break;
+      case JUMP_IF_TRUE_OR_POP:
+        if (stack[sp - 1].isTrue())
+          pc = code[pc];
+        else {
+          sp--;
+          pc++;
+        }
+        break;
+      case LIST: {
+        int n = code[pc++];
+        sp -= n;
+        stack[sp] = new Vlist(Arrays.copyOfRange(stack, sp, sp + n));
+        sp++;
+        break;
+      }
+      case ASLIST:
+        stack[sp - 1].asList();
+        break;
+      case GET: {
+        Vlist l = (Vlist) stack[sp - 2];
+        long i = stack[--sp].asInt();
+        if (i < 0 || i >= l.size())
+          throw new Error("index out of bounds");
+        stack[sp - 1] = l.get((int)i);
+        break;
+      }
+      case CHECK_INDEX: {
+        Vlist l = (Vlist) stack[sp - 2];
+        long i = stack[sp - 1].asInt();
+        if (i < 0 || i >= l.size())
+          throw new Error("index out of bounds");
+        break;
+      }
+      case SET: {
+        sp -= 3;
+        ((Vlist) stack[sp]).set((int)((Vint) stack[sp + 1]).n, stack[sp + 2]);
+        break;
+      }
+      case LEN:
+        stack[sp - 1] = Interp.len(stack[sp - 1]);
+        break;
+      case RANGE:
+        stack[sp - 1] = Interp.range(stack[sp - 1]);
+        break;
+      case APPEND:
+        v2 = stack[--sp];
+        stack[sp - 1] = Interp.append(stack[sp - 1], v2);
+        break;
+      case MAP:
+        stack[sp - 1] = map(c.callees[code[pc++]], stack[sp - 1].asList());
+        break;
+      case CALL: {
+        Chunk g = c.callees[code[pc++]];
+        int n = code[pc++];
+        Value[] callee = new Value[g.frameSize + g.loops];
+        sp -= n;
+        for (int i = 0; i < n; i++)
+          callee[g.params[i]] = stack[sp + i];
+        this.sp = sp;
+        Value r = execute(g, callee);
+        stack = this.stack; // may have been reallocated by the call
+        stack[sp++] = r;
+        break;
+      }
+      case TAIL_CALL: {
+        // the stack below the arguments is empty in a `return`
+        int n = code[pc];
+        sp -= n;
+        Arrays.fill(locals, null);
+        for (int i = 0; i < n; i++)
+          locals[c.params[i]] = stack[sp + i];
+        pc = 0;
+        break;
+      }
+      case RETURN:
+        return stack[--sp];
+      case RETURN_NONE:
+        return new Vnone();
+      case PRINT:
+        out.println(stack[--sp]);
+        break;
+      case FOR_PREP:
+        locals[c.frameSize + code[pc]] = stack[--sp].asList();
+        index[code[pc++]] = 0;
+        break;
+      case FOR_NEXT: {
+        int k = code[pc];
+        Vlist l = (Vlist) locals[c.frameSize + k];
+        if (index[k] < l.size()) {
+          locals[code[pc + 1]] = l.get(index[k]++);
+          pc += 3;
+        } else
+          pc = code[pc + 2];
+        break;
+      }
+      case FAIL:
+        throw new Error(consts[code[pc]].toString());
+      case HALT:
+        return null;
+      default:
+        throw new Error("bad opcode " + code[pc - 1]);
+      }
+    }
+  }
+}
@@ -1,7 +1,7 @@
 
 //----------------------------------------------------
 // The following code was generated by CUP v0.11a beta 20060608
-// Sat Jan 13 11:45:48 CET 2024
+// Sat Oct 17 20:17:38 UTC 2026
 //----------------------------------------------------
 
 package mini_python;
@@ -10,7 +10,7 @@ import java_cup.runtime.*;
 import java.util.*;
 
 /** CUP v0.11a beta 20060608 generated parser.
-  * @version Sat Jan 13 11:45:48 CET 2024
+  * @version Sat Oct 17 20:17:38 UTC 2026
   */
 public class parser extends java_cup.runtime.lr_parser {
 
@@ -26,21 +26,20 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Production table. */
   protected static final short _production_table[][] = 
     unpackFromStrings(new String[] {
-    "\000\055\000\002\002\004\000\002\002\005\000\002\003" +
-    "\011\000\002\014\004\000\002\014\006\000\002\013\004" +
-    "\000\002\013\006\000\002\013\011\000\002\013\010\000" +
-    "\002\012\004\000\002\012\005\000\002\012\010\000\002" +
-    "\012\006\000\002\012\003\000\002\015\003\000\002\015" +
-    "\003\000\002\015\006\000\002\015\004\000\002\015\004" +
-    "\000\002\015\005\000\002\015\005\000\002\015\005\000" +
-    "\002\015\005\000\002\015\005\000\002\015\005\000\002" +
-    "\015\005\000\002\015\005\000\002\015\006\000\002\015" +
-    "\005\000\002\015\005\000\002\017\003\000\002\017\002" +
-    "\000\002\016\005\000\002\016\003\000\002\010\003\000" +
-    "\002\010\002\000\002\011\005\000\002\011\003\000\002" +
-    "\005\004\000\002\005\002\000\002\007\004\000\002\006" +
-    "\004\000\002\006\002\000\002\004\003\000\002\004\002" +
-    "" });
+    "\000\054\000\002\002\004\000\002\002\005\000\002\003" +
+    "\011\000\002\013\004\000\002\013\006\000\002\012\004" +
+    "\000\002\012\006\000\002\012\011\000\002\012\010\000" +
+    "\002\011\004\000\002\011\005\000\002\011\010\000\002" +
+    "\011\006\000\002\011\003\000\002\014\003\000\002\014" +
+    "\003\000\002\014\006\000\002\014\004\000\002\014\004" +
+    "\000\002\014\005\000\002\014\005\000\002\014\005\000" +
+    "\002\014\005\000\002\014\005\000\002\014\005\000\002" +
+    "\014\005\000\002\014\005\000\002\014\006\000\002\014" +
+    "\005\000\002\014\005\000\002\016\003\000\002\016\002" +
+    "\000\002\015\005\000\002\015\003\000\002\007\003\000" +
+    "\002\007\002\000\002\010\005\000\002\010\003\000\002" +
+    "\005\004\000\002\005\002\000\002\006\004\000\002\006" +
+    "\003\000\002\004\003\000\002\004\002" });
 
   /** Access to production table. */
   public short[][] production_table() {return _production_table;}
@@ -48,152 +47,154 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Parse-action table. */
   protected static final short[][] _action_table = 
     unpackFromStrings(new String[] {
-    "\000\142\000\032\004\uffd5\005\uffd5\011\uffd5\012\uffd5\014" +
-    "\uffd5\015\uffd5\016\uffd5\022\uffd5\023\uffd5\025\uffd5\034\006" +
-    "\036\uffd5\001\002\000\004\002\144\001\002\000\030\004" +
-    "\uffda\005\uffda\011\010\012\uffda\014\uffda\015\uffda\016\uffda" +
+    "\000\137\000\032\004\uffd6\005\uffd6\011\uffd6\012\uffd6\014" +
+    "\uffd6\015\uffd6\016\uffd6\022\uffd6\023\uffd6\025\uffd6\034\006" +
+    "\036\uffd6\001\002\000\004\002\141\001\002\000\030\004" +
+    "\uffda\005\uffda\011\uffda\012\uffda\014\uffda\015\uffda\016\uffda" +
     "\022\uffda\023\uffda\025\uffda\036\uffda\001\002\000\030\004" +
-    "\uffd6\005\uffd6\011\uffd6\012\uffd6\014\uffd6\015\uffd6\016\uffd6" +
-    "\022\uffd6\023\uffd6\025\uffd6\036\uffd6\001\002\000\026\004" +
-    "\027\005\025\012\100\014\037\015\033\016\075\022\035" +
-    "\023\026\025\030\036\024\001\002\000\004\004\013\001" +
-    "\002\000\030\004\uffda\005\uffda\011\010\012\uffda\014\uffda" +
-    "\015\uffda\016\uffda\022\uffda\023\uffda\025\uffda\036\uffda\001" +
-    "\002\000\026\004\uffdb\005\uffdb\012\uffdb\014\uffdb\015\uffdb" +
-    "\016\uffdb\022\uffdb\023\uffdb\025\uffdb\036\uffdb\001\002\000" +
-    "\004\023\014\001\002\000\006\004\017\024\uffde\001\002" +
-    "\000\004\024\uffdf\001\002\000\004\024\022\001\002\000" +
-    "\006\024\uffdc\027\020\001\002\000\004\004\017\001\002" +
-    "\000\004\024\uffdd\001\002\000\004\031\023\001\002\000" +
-    "\024\004\027\005\025\014\037\015\033\022\035\023\026" +
-    "\025\030\034\036\036\024\001\002\000\016\004\040\005" +
-    "\025\022\035\023\026\025\030\036\024\001\002\000\036" +
-    "\006\ufff3\020\ufff3\021\ufff3\024\ufff3\025\ufff3\026\ufff3\027" +
-    "\ufff3\031\ufff3\034\ufff3\035\ufff3\036\ufff3\037\ufff3\040\ufff3" +
-    "\041\ufff3\001\002\000\016\004\040\005\025\022\035\023" +
-    "\026\025\030\036\024\001\002\000\032\006\ufff2\020\ufff2" +
-    "\021\ufff2\023\065\025\ufff2\030\136\034\ufff2\035\ufff2\036" +
-    "\ufff2\037\ufff2\040\ufff2\041\ufff2\001\002\000\020\004\040" +
-    "\005\025\022\035\023\026\025\030\026\uffe2\036\024\001" +
-    "\002\000\030\004\uffff\005\uffff\011\uffff\012\uffff\014\uffff" +
-    "\015\uffff\016\uffff\022\uffff\023\uffff\025\uffff\036\uffff\001" +
-    "\002\000\004\034\133\001\002\000\004\023\130\001\002" +
-    "\000\026\006\045\020\043\021\052\025\123\034\ufff4\035" +
-    "\047\036\042\037\051\040\050\041\046\001\002\000\016" +
-    "\004\040\005\025\022\035\023\026\025\030\036\024\001" +
-    "\002\000\004\032\074\001\002\000\016\004\040\005\025" +
-    "\022\035\023\026\025\030\036\024\001\002\000\040\006" +
-    "\ufff2\020\ufff2\021\ufff2\023\065\024\ufff2\025\ufff2\026\ufff2" +
+    "\uffd7\005\uffd7\011\uffd7\012\uffd7\014\uffd7\015\uffd7\016\uffd7" +
+    "\022\uffd7\023\uffd7\025\uffd7\036\uffd7\001\002\000\030\004" +
+    "\013\005\011\011\024\012\021\014\027\015\023\016\016" +
+    "\022\026\023\012\025\014\036\010\001\002\000\016\004" +
+    "\030\005\011\022\026\023\012\025\014\036\010\001\002" +
+    "\000\036\006\ufff3\020\ufff3\021\ufff3\024\ufff3\025\ufff3\026" +
+    "\ufff3\027\ufff3\031\ufff3\034\ufff3\035\ufff3\036\ufff3\037\ufff3" +
+    "\040\ufff3\041\ufff3\001\002\000\016\004\030\005\011\022" +
+    "\026\023\012\025\014\036\010\001\002\000\032\006\ufff2" +
+    "\020\ufff2\021\ufff2\023\055\025\ufff2\030\134\034\ufff2\035" +
+    "\ufff2\036\ufff2\037\ufff2\040\ufff2\041\ufff2\001\002\000\020" +
+    "\004\030\005\011\022\026\023\012\025\014\026\uffe2\036" +
+    "\010\001\002\000\030\004\uffdb\005\uffdb\011\uffdb\012\uffdb" +
+    "\014\uffdb\015\uffdb\016\uffdb\022\uffdb\023\uffdb\025\uffdb\036" +
+    "\uffdb\001\002\000\004\004\125\001\002\000\032\002\uffd8" +
+    "\004\uffd8\005\uffd8\012\uffd8\014\uffd8\015\uffd8\016\uffd8\022" +
+    "\uffd8\023\uffd8\025\uffd8\033\uffd8\036\uffd8\001\002\000\030" +
+    "\002\000\004\013\005\011\012\021\014\027\015\023\016" +
+    "\016\022\026\023\012\025\014\036\010\001\002\000\016" +
+    "\004\030\005\011\022\026\023\012\025\014\036\010\001" +
+    "\002\000\004\034\116\001\002\000\004\023\113\001\002" +
+    "\000\004\004\072\001\002\000\026\006\035\020\033\021" +
+    "\042\025\065\034\ufff4\035\037\036\032\037\041\040\040" +
+    "\041\036\001\002\000\016\004\030\005\011\022\026\023" +
+    "\012\025\014\036\010\001\002\000\016\004\030\005\011" +
+    "\022\026\023\012\025\014\036\010\001\002\000\040\006" +
+    "\ufff2\020\ufff2\021\ufff2\023\055\024\ufff2\025\ufff2\026\ufff2" +
     "\027\ufff2\031\ufff2\034\ufff2\035\ufff2\036\ufff2\037\ufff2\040" +
-    "\ufff2\041\ufff2\001\002\000\026\006\045\020\043\021\052" +
-    "\025\044\034\ufff8\035\047\036\042\037\051\040\050\041" +
-    "\046\001\002\000\016\004\040\005\025\022\035\023\026" +
-    "\025\030\036\024\001\002\000\016\004\040\005\025\022" +
-    "\035\023\026\025\030\036\024\001\002\000\016\004\040" +
-    "\005\025\022\035\023\026\025\030\036\024\001\002\000" +
-    "\016\004\040\005\025\022\035\023\026\025\030\036\024" +
-    "\001\002\000\016\004\040\005\025\022\035\023\026\025" +
-    "\030\036\024\001\002\000\016\004\040\005\025\022\035" +
-    "\023\026\025\030\036\024\001\002\000\016\004\040\005" +
-    "\025\022\035\023\026\025\030\036\024\001\002\000\016" +
-    "\004\040\005\025\022\035\023\026\025\030\036\024\001" +
-    "\002\000\016\004\040\005\025\022\035\023\026\025\030" +
-    "\036\024\001\002\000\036\006\045\020\043\021\uffe7\024" +
-    "\uffe7\025\044\026\uffe7\027\uffe7\031\uffe7\034\uffe7\035\047" +
-    "\036\042\037\051\040\050\041\046\001\002\000\036\006" +
-    "\uffec\020\uffec\021\uffec\024\uffec\025\044\026\uffec\027\uffec" +
+    "\ufff2\041\ufff2\001\002\000\026\006\035\020\033\021\042" +
+    "\025\034\034\ufff8\035\037\036\032\037\041\040\040\041" +
+    "\036\001\002\000\016\004\030\005\011\022\026\023\012" +
+    "\025\014\036\010\001\002\000\016\004\030\005\011\022" +
+    "\026\023\012\025\014\036\010\001\002\000\016\004\030" +
+    "\005\011\022\026\023\012\025\014\036\010\001\002\000" +
+    "\016\004\030\005\011\022\026\023\012\025\014\036\010" +
+    "\001\002\000\016\004\030\005\011\022\026\023\012\025" +
+    "\014\036\010\001\002\000\016\004\030\005\011\022\026" +
+    "\023\012\025\014\036\010\001\002\000\016\004\030\005" +
+    "\011\022\026\023\012\025\014\036\010\001\002\000\016" +
+    "\004\030\005\011\022\026\023\012\025\014\036\010\001" +
+    "\002\000\016\004\030\005\011\022\026\023\012\025\014" +
+    "\036\010\001\002\000\036\006\035\020\033\021\uffe7\024" +
+    "\uffe7\025\034\026\uffe7\027\uffe7\031\uffe7\034\uffe7\035\037" +
+    "\036\032\037\041\040\040\041\036\001\002\000\036\006" +
+    "\uffec\020\uffec\021\uffec\024\uffec\025\034\026\uffec\027\uffec" +
     "\031\uffec\034\uffec\035\uffec\036\uffec\037\uffec\040\uffec\041" +
     "\uffec\001\002\000\036\006\uffeb\020\uffeb\021\uffeb\024\uffeb" +
-    "\025\044\026\uffeb\027\uffeb\031\uffeb\034\uffeb\035\uffeb\036" +
+    "\025\034\026\uffeb\027\uffeb\031\uffeb\034\uffeb\035\uffeb\036" +
     "\uffeb\037\uffeb\040\uffeb\041\uffeb\001\002\000\036\006\uffee" +
-    "\020\uffee\021\uffee\024\uffee\025\044\026\uffee\027\uffee\031" +
-    "\uffee\034\uffee\035\uffee\036\uffee\037\051\040\050\041\046" +
+    "\020\uffee\021\uffee\024\uffee\025\034\026\uffee\027\uffee\031" +
+    "\uffee\034\uffee\035\uffee\036\uffee\037\041\040\040\041\036" +
     "\001\002\000\036\006\uffea\020\uffea\021\uffea\024\uffea\025" +
-    "\044\026\uffea\027\uffea\031\uffea\034\uffea\035\uffea\036\uffea" +
+    "\034\026\uffea\027\uffea\031\uffea\034\uffea\035\uffea\036\uffea" +
     "\037\uffea\040\uffea\041\uffea\001\002\000\034\020\uffe9\021" +
-    "\uffe9\024\uffe9\025\044\026\uffe9\027\uffe9\031\uffe9\034\uffe9" +
-    "\035\047\036\042\037\051\040\050\041\046\001\002\000" +
-    "\026\006\045\020\043\021\052\025\044\026\062\035\047" +
-    "\036\042\037\051\040\050\041\046\001\002\000\036\006" +
+    "\uffe9\024\uffe9\025\034\026\uffe9\027\uffe9\031\uffe9\034\uffe9" +
+    "\035\037\036\032\037\041\040\040\041\036\001\002\000" +
+    "\026\006\035\020\033\021\042\025\034\026\052\035\037" +
+    "\036\032\037\041\040\040\041\036\001\002\000\036\006" +
     "\ufff1\020\ufff1\021\ufff1\024\ufff1\025\ufff1\026\ufff1\027\ufff1" +
     "\031\ufff1\034\ufff1\035\ufff1\036\ufff1\037\ufff1\040\ufff1\041" +
-    "\ufff1\001\002\000\036\006\045\020\uffe8\021\uffe8\024\uffe8" +
-    "\025\044\026\uffe8\027\uffe8\031\uffe8\034\uffe8\035\047\036" +
-    "\042\037\051\040\050\041\046\001\002\000\036\006\uffed" +
-    "\020\uffed\021\uffed\024\uffed\025\044\026\uffed\027\uffed\031" +
-    "\uffed\034\uffed\035\uffed\036\uffed\037\051\040\050\041\046" +
-    "\001\002\000\020\004\040\005\025\022\035\023\026\024" +
-    "\uffe2\025\030\036\024\001\002\000\004\024\073\001\002" +
-    "\000\006\024\uffe3\026\uffe3\001\002\000\032\006\045\020" +
-    "\043\021\052\024\uffe0\025\044\026\uffe0\027\071\035\047" +
-    "\036\042\037\051\040\050\041\046\001\002\000\016\004" +
-    "\040\005\025\022\035\023\026\025\030\036\024\001\002" +
-    "\000\006\024\uffe1\026\uffe1\001\002\000\036\006\uffe6\020" +
-    "\uffe6\021\uffe6\024\uffe6\025\uffe6\026\uffe6\027\uffe6\031\uffe6" +
-    "\034\uffe6\035\uffe6\036\uffe6\037\uffe6\040\uffe6\041\uffe6\001" +
-    "\002\000\026\004\027\005\025\012\100\014\037\015\033" +
-    "\016\075\022\035\023\026\025\030\036\024\001\002\000" +
-    "\004\004\115\001\002\000\032\002\uffd7\004\027\005\025" +
-    "\012\100\014\037\015\033\016\075\022\035\023\026\025" +
-    "\030\033\uffd7\036\024\001\002\000\004\033\111\001\002" +
-    "\000\016\004\040\005\025\022\035\023\026\025\030\036" +
-    "\024\001\002\000\004\034\102\001\002\000\032\002\ufffc" +
-    "\004\ufffc\005\ufffc\012\ufffc\014\ufffc\015\ufffc\016\ufffc\022" +
-    "\ufffc\023\ufffc\025\ufffc\033\ufffc\036\ufffc\001\002\000\026" +
-    "\006\045\020\043\021\052\025\044\031\104\035\047\036" +
-    "\042\037\051\040\050\041\046\001\002\000\024\004\027" +
-    "\005\025\014\037\015\033\022\035\023\026\025\030\034" +
-    "\036\036\024\001\002\000\034\002\ufffb\004\ufffb\005\ufffb" +
-    "\012\ufffb\013\106\014\ufffb\015\ufffb\016\ufffb\022\ufffb\023" +
-    "\ufffb\025\ufffb\033\ufffb\036\ufffb\001\002\000\004\031\107" +
-    "\001\002\000\024\004\027\005\025\014\037\015\033\022" +
-    "\035\023\026\025\030\034\036\036\024\001\002\000\032" +
-    "\002\ufffa\004\ufffa\005\ufffa\012\ufffa\014\ufffa\015\ufffa\016" +
-    "\ufffa\022\ufffa\023\ufffa\025\ufffa\033\ufffa\036\ufffa\001\002" +
-    "\000\036\002\ufffd\004\ufffd\005\ufffd\011\ufffd\012\ufffd\013" +
-    "\ufffd\014\ufffd\015\ufffd\016\ufffd\022\ufffd\023\ufffd\025\ufffd" +
-    "\033\ufffd\036\ufffd\001\002\000\032\002\uffd7\004\027\005" +
-    "\025\012\100\014\037\015\033\016\075\022\035\023\026" +
-    "\025\030\033\uffd7\036\024\001\002\000\006\002\uffd9\033" +
-    "\uffd9\001\002\000\006\002\uffd8\033\uffd8\001\002\000\004" +
-    "\017\116\001\002\000\016\004\040\005\025\022\035\023" +
-    "\026\025\030\036\024\001\002\000\026\006\045\020\043" +
-    "\021\052\025\044\031\120\035\047\036\042\037\051\040" +
-    "\050\041\046\001\002\000\024\004\027\005\025\014\037" +
-    "\015\033\022\035\023\026\025\030\034\036\036\024\001" +
-    "\002\000\032\002\ufff9\004\ufff9\005\ufff9\012\ufff9\014\ufff9" +
-    "\015\ufff9\016\ufff9\022\ufff9\023\ufff9\025\ufff9\033\ufff9\036" +
-    "\ufff9\001\002\000\036\006\045\020\uffef\021\uffef\024\uffef" +
-    "\025\044\026\uffef\027\uffef\031\uffef\034\uffef\035\047\036" +
-    "\042\037\051\040\050\041\046\001\002\000\016\004\040" +
-    "\005\025\022\035\023\026\025\030\036\024\001\002\000" +
-    "\026\006\045\020\043\021\052\025\044\026\125\035\047" +
-    "\036\042\037\051\040\050\041\046\001\002\000\030\006" +
-    "\ufff1\020\ufff1\021\ufff1\025\ufff1\030\126\034\ufff1\035\ufff1" +
-    "\036\ufff1\037\ufff1\040\ufff1\041\ufff1\001\002\000\016\004" +
-    "\040\005\025\022\035\023\026\025\030\036\024\001\002" +
-    "\000\026\006\045\020\043\021\052\025\044\034\ufff6\035" +
-    "\047\036\042\037\051\040\050\041\046\001\002\000\016" +
-    "\004\040\005\025\022\035\023\026\025\030\036\024\001" +
-    "\002\000\026\006\045\020\043\021\052\024\132\025\044" +
-    "\035\047\036\042\037\051\040\050\041\046\001\002\000" +
-    "\004\034\ufff5\001\002\000\036\002\ufffe\004\ufffe\005\ufffe" +
-    "\011\ufffe\012\ufffe\013\ufffe\014\ufffe\015\ufffe\016\ufffe\022" +
-    "\ufffe\023\ufffe\025\ufffe\033\ufffe\036\ufffe\001\002\000\004" +
-    "\026\135\001\002\000\036\006\uffe5\020\uffe5\021\uffe5\024" +
-    "\uffe5\025\uffe5\026\uffe5\027\uffe5\031\uffe5\034\uffe5\035\uffe5" +
-    "\036\uffe5\037\uffe5\040\uffe5\041\uffe5\001\002\000\016\004" +
-    "\040\005\025\022\035\023\026\025\030\036\024\001\002" +
-    "\000\026\006\045\020\043\021\052\025\044\034\ufff7\035" +
-    "\047\036\042\037\051\040\050\041\046\001\002\000\026" +
-    "\006\045\020\043\021\052\024\141\025\044\035\047\036" +
-    "\042\037\051\040\050\041\046\001\002\000\036\006\uffe4" +
-    "\020\uffe4\021\uffe4\024\uffe4\025\uffe4\026\uffe4\027\uffe4\031" +
-    "\uffe4\034\uffe4\035\uffe4\036\uffe4\037\uffe4\040\uffe4\041\uffe4" +
-    "\001\002\000\036\006\ufff0\020\ufff0\021\ufff0\024\ufff0\025" +
-    "\044\026\ufff0\027\ufff0\031\ufff0\034\ufff0\035\ufff0\036\ufff0" +
-    "\037\ufff0\040\ufff0\041\ufff0\001\002\000\004\002\000\001" +
-    "\002\000\004\002\001\001\002" });
+    "\ufff1\001\002\000\036\006\035\020\uffe8\021\uffe8\024\uffe8" +
+    "\025\034\026\uffe8\027\uffe8\031\uffe8\034\uffe8\035\037\036" +
+    "\032\037\041\040\040\041\036\001\002\000\036\006\uffed" +
+    "\020\uffed\021\uffed\024\uffed\025\034\026\uffed\027\uffed\031" +
+    "\uffed\034\uffed\035\uffed\036\uffed\037\041\040\040\041\036" +
+    "\001\002\000\020\004\030\005\011\022\026\023\012\024" +
+    "\uffe2\025\014\036\010\001\002\000\004\024\063\001\002" +
+    "\000\010\024\uffe3\026\uffe3\027\061\001\002\000\032\006" +
+    "\035\020\033\021\042\024\uffe0\025\034\026\uffe0\027\uffe0" +
+    "\035\037\036\032\037\041\040\040\041\036\001\002\000" +
+    "\016\004\030\005\011\022\026\023\012\025\014\036\010" +
+    "\001\002\000\032\006\035\020\033\021\042\024\uffe1\025" +
+    "\034\026\uffe1\027\uffe1\035\037\036\032\037\041\040\040" +
+    "\041\036\001\002\000\036\006\uffe6\020\uffe6\021\uffe6\024" +
+    "\uffe6\025\uffe6\026\uffe6\027\uffe6\031\uffe6\034\uffe6\035\uffe6" +
+    "\036\uffe6\037\uffe6\040\uffe6\041\uffe6\001\002\000\036\006" +
+    "\035\020\uffef\021\uffef\024\uffef\025\034\026\uffef\027\uffef" +
+    "\031\uffef\034\uffef\035\037\036\032\037\041\040\040\041" +
+    "\036\001\002\000\016\004\030\005\011\022\026\023\012" +
+    "\025\014\036\010\001\002\000\026\006\035\020\033\021" +
+    "\042\025\034\026\067\035\037\036\032\037\041\040\040" +
+    "\041\036\001\002\000\030\006\ufff1\020\ufff1\021\ufff1\025" +
+    "\ufff1\030\070\034\ufff1\035\ufff1\036\ufff1\037\ufff1\040\ufff1" +
+    "\041\ufff1\001\002\000\016\004\030\005\011\022\026\023" +
+    "\012\025\014\036\010\001\002\000\026\006\035\020\033" +
+    "\021\042\025\034\034\ufff6\035\037\036\032\037\041\040" +
+    "\040\041\036\001\002\000\004\023\073\001\002\000\006" +
+    "\004\076\024\uffde\001\002\000\006\024\uffdf\027\111\001" +
+    "\002\000\004\024\077\001\002\000\006\024\uffdc\027\uffdc" +
+    "\001\002\000\004\031\100\001\002\000\024\004\013\005" +
+    "\011\014\027\015\023\022\026\023\012\025\014\034\103" +
+    "\036\010\001\002\000\030\004\uffff\005\uffff\011\uffff\012" +
+    "\uffff\014\uffff\015\uffff\016\uffff\022\uffff\023\uffff\025\uffff" +
+    "\036\uffff\001\002\000\004\034\110\001\002\000\004\032" +
+    "\104\001\002\000\026\004\013\005\011\012\021\014\027" +
+    "\015\023\016\016\022\026\023\012\025\014\036\010\001" +
+    "\002\000\030\004\013\005\011\012\021\014\027\015\023" +
+    "\016\016\022\026\023\012\025\014\033\107\036\010\001" +
+    "\002\000\032\002\uffd9\004\uffd9\005\uffd9\012\uffd9\014\uffd9" +
+    "\015\uffd9\016\uffd9\022\uffd9\023\uffd9\025\uffd9\033\uffd9\036" +
+    "\uffd9\001\002\000\036\002\ufffd\004\ufffd\005\ufffd\011\ufffd" +
+    "\012\ufffd\013\ufffd\014\ufffd\015\ufffd\016\ufffd\022\ufffd\023" +
+    "\ufffd\025\ufffd\033\ufffd\036\ufffd\001\002\000\036\002\ufffe" +
+    "\004\ufffe\005\ufffe\011\ufffe\012\ufffe\013\ufffe\014\ufffe\015" +
+    "\ufffe\016\ufffe\022\ufffe\023\ufffe\025\ufffe\033\ufffe\036\ufffe" +
+    "\001\002\000\004\004\112\001\002\000\006\024\uffdd\027" +
+    "\uffdd\001\002\000\016\004\030\005\011\022\026\023\012" +
+    "\025\014\036\010\001\002\000\026\006\035\020\033\021" +
+    "\042\024\115\025\034\035\037\036\032\037\041\040\040" +
+    "\041\036\001\002\000\004\034\ufff5\001\002\000\032\002" +
+    "\ufffc\004\ufffc\005\ufffc\012\ufffc\014\ufffc\015\ufffc\016\ufffc" +
+    "\022\ufffc\023\ufffc\025\ufffc\033\ufffc\036\ufffc\001\002\000" +
+    "\026\006\035\020\033\021\042\025\034\031\120\035\037" +
+    "\036\032\037\041\040\040\041\036\001\002\000\024\004" +
+    "\013\005\011\014\027\015\023\022\026\023\012\025\014" +
+    "\034\103\036\010\001\002\000\034\002\ufffb\004\ufffb\005" +
+    "\ufffb\012\ufffb\013\122\014\ufffb\015\ufffb\016\ufffb\022\ufffb" +
+    "\023\ufffb\025\ufffb\033\ufffb\036\ufffb\001\002\000\004\031" +
+    "\123\001\002\000\024\004\013\005\011\014\027\015\023" +
+    "\022\026\023\012\025\014\034\103\036\010\001\002\000" +
+    "\032\002\ufffa\004\ufffa\005\ufffa\012\ufffa\014\ufffa\015\ufffa" +
+    "\016\ufffa\022\ufffa\023\ufffa\025\ufffa\033\ufffa\036\ufffa\001" +
+    "\002\000\004\017\126\001\002\000\016\004\030\005\011" +
+    "\022\026\023\012\025\014\036\010\001\002\000\026\006" +
+    "\035\020\033\021\042\025\034\031\130\035\037\036\032" +
+    "\037\041\040\040\041\036\001\002\000\024\004\013\005" +
+    "\011\014\027\015\023\022\026\023\012\025\014\034\103" +
+    "\036\010\001\002\000\032\002\ufff9\004\ufff9\005\ufff9\012" +
+    "\ufff9\014\ufff9\015\ufff9\016\ufff9\022\ufff9\023\ufff9\025\ufff9" +
+    "\033\ufff9\036\ufff9\001\002\000\004\026\133\001\002\000" +
+    "\036\006\uffe5\020\uffe5\021\uffe5\024\uffe5\025\uffe5\026\uffe5" +
+    "\027\uffe5\031\uffe5\034\uffe5\035\uffe5\036\uffe5\037\uffe5\040" +
+    "\uffe5\041\uffe5\001\002\000\016\004\030\005\011\022\026" +
+    "\023\012\025\014\036\010\001\002\000\026\006\035\020" +
+    "\033\021\042\025\034\034\ufff7\035\037\036\032\037\041" +
+    "\040\040\041\036\001\002\000\026\006\035\020\033\021" +
+    "\042\024\137\025\034\035\037\036\032\037\041\040\040" +
+    "\041\036\001\002\000\036\006\uffe4\020\uffe4\021\uffe4\024" +
+    "\uffe4\025\uffe4\026\uffe4\027\uffe4\031\uffe4\034\uffe4\035\uffe4" +
+    "\036\uffe4\037\uffe4\040\uffe4\041\uffe4\001\002\000\036\006" +
+    "\ufff0\020\ufff0\021\ufff0\024\ufff0\025\034\026\ufff0\027\ufff0" +
+    "\031\ufff0\034\ufff0\035\ufff0\036\ufff0\037\ufff0\040\ufff0\041" +
+    "\ufff0\001\002\000\004\002\001\001\002" });
 
   /** Access to parse-action table. */
   public short[][] action_table() {return _action_table;}
@@ -201,47 +202,45 @@ public class parser extends java_cup.runtime.lr_parser {
   /** <code>reduce_goto</code> table. */
   protected static final short[][] _reduce_table = 
     unpackFromStrings(new String[] {
-    "\000\142\000\006\002\003\004\004\001\001\000\002\001" +
-    "\001\000\006\003\010\005\006\001\001\000\002\001\001" +
-    "\000\012\007\142\012\100\013\075\015\033\001\001\000" +
-    "\002\001\001\000\006\003\010\005\011\001\001\000\002" +
-    "\001\001\000\002\001\001\000\006\010\015\011\014\001" +
-    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
-    "\000\004\011\020\001\001\000\002\001\001\000\002\001" +
-    "\001\000\010\012\031\014\030\015\033\001\001\000\004" +
-    "\015\141\001\001\000\002\001\001\000\004\015\137\001" +
-    "\001\000\002\001\001\000\010\015\067\016\066\017\133" +
-    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001\000\004\015\121\001\001\000\002" +
-    "\001\001\000\004\015\040\001\001\000\002\001\001\000" +
-    "\002\001\001\000\004\015\063\001\001\000\004\015\062" +
-    "\001\001\000\004\015\060\001\001\000\004\015\057\001" +
-    "\001\000\004\015\056\001\001\000\004\015\055\001\001" +
-    "\000\004\015\054\001\001\000\004\015\053\001\001\000" +
-    "\004\015\052\001\001\000\002\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\010\015\067\016\066\017" +
-    "\065\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\006\015\067\016\071\001\001\000\002\001" +
-    "\001\000\002\001\001\000\012\007\076\012\100\013\075" +
-    "\015\033\001\001\000\002\001\001\000\012\006\112\012" +
-    "\100\013\111\015\033\001\001\000\002\001\001\000\004" +
-    "\015\102\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001\000\010\012\031\014\104\015\033\001\001" +
-    "\000\002\001\001\000\002\001\001\000\010\012\031\014" +
-    "\107\015\033\001\001\000\002\001\001\000\002\001\001" +
-    "\000\012\006\113\012\100\013\111\015\033\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\004" +
-    "\015\116\001\001\000\002\001\001\000\010\012\031\014" +
-    "\120\015\033\001\001\000\002\001\001\000\002\001\001" +
-    "\000\004\015\123\001\001\000\002\001\001\000\002\001" +
-    "\001\000\004\015\126\001\001\000\002\001\001\000\004" +
-    "\015\130\001\001\000\002\001\001\000\002\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\004" +
-    "\015\136\001\001\000\002\001\001\000\002\001\001\000" +
+    "\000\137\000\006\002\003\004\004\001\001\000\002\001" +
+    "\001\000\004\005\006\001\001\000\002\001\001\000\014" +
+    "\003\014\006\017\011\021\012\016\014\024\001\001\000" +
+    "\004\014\137\001\001\000\002\001\001\000\004\014\135" +
+    "\001\001\000\002\001\001\000\010\014\057\015\056\016" +
+    "\131\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\010\011\021\012\105\014\024\001\001\000" +
+    "\004\014\116\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\004\014\063\001" +
+    "\001\000\004\014\030\001\001\000\002\001\001\000\002" +
+    "\001\001\000\004\014\053\001\001\000\004\014\052\001" +
+    "\001\000\004\014\050\001\001\000\004\014\047\001\001" +
+    "\000\004\014\046\001\001\000\004\014\045\001\001\000" +
+    "\004\014\044\001\001\000\004\014\043\001\001\000\004" +
+    "\014\042\001\001\000\002\001\001\000\002\001\001\000" +
     "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001" });
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\010\014\057\015\056\016\055" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\004\014\061\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\004\014\065\001\001\000" +
+    "\002\001\001\000\002\001\001\000\004\014\070\001\001" +
+    "\000\002\001\001\000\002\001\001\000\006\007\074\010" +
+    "\073\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\010\011\101\013\100\014" +
+    "\024\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\012\006\104\011\021\012\016\014\024\001" +
+    "\001\000\010\011\021\012\105\014\024\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\002\001\001\000\004\014\113\001\001\000\002" +
+    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
+    "\001\000\010\011\101\013\120\014\024\001\001\000\002" +
+    "\001\001\000\002\001\001\000\010\011\101\013\123\014" +
+    "\024\001\001\000\002\001\001\000\002\001\001\000\004" +
+    "\014\126\001\001\000\002\001\001\000\010\011\101\013" +
+    "\130\014\024\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\004\014\134\001\001\000\002\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001" });
 
   /** Access to <code>reduce_goto</code> table. */
   public short[][] reduce_table() {return _reduce_table;}
@@ -304,7 +303,7 @@ class CUP$parser$actions {
       switch (CUP$parser$act_num)
         {
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 44: // opt_newline ::= 
+          case 43: // opt_newline ::= 
             {
               Object RESULT =null;
 
@@ -313,7 +312,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 43: // opt_newline ::= NEWLINE 
+          case 42: // opt_newline ::= NEWLINE 
             {
               Object RESULT =null;
 
@@ -322,64 +321,53 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 42: // list_stmt ::= 
+          case 41: // nonempty_list_stmt ::= stmt 
             {
-              LinkedList<Stmt> RESULT =null;
-		 RESULT = new LinkedList<Stmt>(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_stmt",4, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
-            }
-          return CUP$parser$result;
-
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 41: // list_stmt ::= stmt list_stmt 
-            {
-              LinkedList<Stmt> RESULT =null;
-		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Stmt> l = (LinkedList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addFirst(s); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_stmt",4, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Stmt> RESULT =null;
+		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 ArrayList<Stmt> l = new ArrayList<Stmt>();
+      l.add(s); RESULT = l; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_stmt",4, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 40: // nonempty_list_stmt ::= stmt list_stmt 
+          case 40: // nonempty_list_stmt ::= nonempty_list_stmt stmt 
             {
-              LinkedList<Stmt> RESULT =null;
-		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Stmt> l = (LinkedList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addFirst(s); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_stmt",5, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Stmt> RESULT =null;
+		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		ArrayList<Stmt> l = (ArrayList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 l.add(s); RESULT = l; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_stmt",4, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 39: // list_def ::= 
             {
-              LinkedList<Def> RESULT =null;
-		 RESULT = new LinkedList<Def>(); 
+              ArrayList<Def> RESULT =null;
+		 RESULT = new ArrayList<Def>(); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("list_def",3, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 38: // list_def ::= def list_def 
+          case 38: // list_def ::= list_def def 
             {
-              LinkedList<Def> RESULT =null;
-		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		Def d = (Def)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Def> l = (LinkedList<Def>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addFirst(d); RESULT = l; 
+              ArrayList<Def> RESULT =null;
+		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		ArrayList<Def> l = (ArrayList<Def>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Def d = (Def)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 l.add(d); RESULT = l; 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("list_def",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
@@ -387,98 +375,98 @@ class CUP$parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 37: // nonempty_list_comma_ident ::= IDENT 
             {
-              LinkedList<Ident> RESULT =null;
+              ArrayList<Ident> RESULT =null;
 		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Ident x = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 LinkedList<Ident> l = new LinkedList<Ident>();
+		 ArrayList<Ident> l = new ArrayList<Ident>();
       l.add(x); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_ident",7, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_ident",6, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 36: // nonempty_list_comma_ident ::= IDENT COMMA nonempty_list_comma_ident 
+          case 36: // nonempty_list_comma_ident ::= nonempty_list_comma_ident COMMA IDENT 
             {
-              LinkedList<Ident> RESULT =null;
-		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		Ident x = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Ident> l = (LinkedList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addFirst(x); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_ident",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Ident> RESULT =null;
+		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		ArrayList<Ident> l = (ArrayList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Ident x = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 l.add(x); RESULT = l; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_ident",6, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 35: // list_comma_ident ::= 
             {
-              LinkedList<Ident> RESULT =null;
-		 RESULT = new LinkedList<Ident>(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_ident",6, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Ident> RESULT =null;
+		 RESULT = new ArrayList<Ident>(); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_ident",5, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 34: // list_comma_ident ::= nonempty_list_comma_ident 
             {
-              LinkedList<Ident> RESULT =null;
+              ArrayList<Ident> RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Ident> l = (LinkedList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		ArrayList<Ident> l = (ArrayList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_ident",6, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_ident",5, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 33: // nonempty_list_comma_expr ::= expr 
             {
-              LinkedList<Expr> RESULT =null;
+              ArrayList<Expr> RESULT =null;
 		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr x = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 LinkedList<Expr> l = new LinkedList<Expr>();
+		 ArrayList<Expr> l = new ArrayList<Expr>();
       l.add(x); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_expr",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 32: // nonempty_list_comma_expr ::= expr COMMA nonempty_list_comma_expr 
+          case 32: // nonempty_list_comma_expr ::= nonempty_list_comma_expr COMMA expr 
             {
-              LinkedList<Expr> RESULT =null;
-		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		Expr x = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Expr> l = (LinkedList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addFirst(x); RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_expr",12, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Expr> RESULT =null;
+		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		ArrayList<Expr> l = (ArrayList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Expr x = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 l.add(x); RESULT = l; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("nonempty_list_comma_expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 31: // list_comma_expr ::= 
             {
-              LinkedList<Expr> RESULT =null;
-		 RESULT = new LinkedList<Expr>(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_expr",13, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              ArrayList<Expr> RESULT =null;
+		 RESULT = new ArrayList<Expr>(); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_expr",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 30: // list_comma_expr ::= nonempty_list_comma_expr 
             {
-              LinkedList<Expr> RESULT =null;
+              ArrayList<Expr> RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Expr> l = (LinkedList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		ArrayList<Expr> l = (ArrayList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_expr",13, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("list_comma_expr",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -490,7 +478,7 @@ class CUP$parser$actions {
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT = e; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -500,9 +488,9 @@ class CUP$parser$actions {
               Expr RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList<Expr> l = (LinkedList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new Elist(l); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		ArrayList<Expr> l = (ArrayList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new Elist(l.toArray(new Expr[0])); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -515,9 +503,9 @@ class CUP$parser$actions {
 		Ident f = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList<Expr> l = (LinkedList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new Ecall (f, l); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		ArrayList<Expr> l = (ArrayList<Expr>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new Ecall (f, l.toArray(new Expr[0])); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -532,7 +520,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Bor, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -547,7 +535,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Band, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -565,7 +553,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(c, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -580,7 +568,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Bmod, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -595,7 +583,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Bdiv, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -610,7 +598,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Bmul, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -625,7 +613,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Bsub, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -640,7 +628,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ebinop(Binop.Badd, e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -652,7 +640,7 @@ class CUP$parser$actions {
 		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Eunop(Unop.Unot, e1); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -664,7 +652,7 @@ class CUP$parser$actions {
 		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Eunop(Unop.Uneg, e1); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -679,7 +667,7 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT = new Eget(e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -691,7 +679,7 @@ class CUP$parser$actions {
 		int idright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Ident id = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Eident(id); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -703,7 +691,7 @@ class CUP$parser$actions {
 		int cright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Constant c = (Constant)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new Ecst(c); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("expr",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -715,7 +703,7 @@ class CUP$parser$actions {
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Seval(e); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",7, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -727,7 +715,7 @@ class CUP$parser$actions {
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT =  new Sprint(e); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -745,7 +733,7 @@ class CUP$parser$actions {
 		int e3right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e3 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sset(e1, e2, e3); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -760,7 +748,7 @@ class CUP$parser$actions {
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sassign(id, e); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -772,7 +760,7 @@ class CUP$parser$actions {
 		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sreturn(e); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("simple_stmt",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -790,7 +778,7 @@ class CUP$parser$actions {
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sfor(x, e, s); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -808,7 +796,7 @@ class CUP$parser$actions {
 		int s2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Stmt s2 = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sif(c, s1, s2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -823,7 +811,7 @@ class CUP$parser$actions {
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT =  new Sif(c, s, new Sblock()); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -835,7 +823,7 @@ class CUP$parser$actions {
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT =  s; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -845,9 +833,9 @@ class CUP$parser$actions {
               Stmt RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList<Stmt> l = (LinkedList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new Sblock(l); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("suite",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		ArrayList<Stmt> l = (ArrayList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new Sblock(l.toArray(new Stmt[0])); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("suite",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -859,7 +847,7 @@ class CUP$parser$actions {
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		 RESULT = s; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("suite",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("suite",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
@@ -872,11 +860,11 @@ class CUP$parser$actions {
 		Ident f = (Ident)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-5)).value;
 		int xleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
 		int xright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
-		LinkedList<Ident> x = (LinkedList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
+		ArrayList<Ident> x = (ArrayList<Ident>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
 		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new Def(f, x, s); 
+		 RESULT = new Def(f, x.toArray(new Ident[0]), s); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("def",1, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
@@ -887,11 +875,12 @@ class CUP$parser$actions {
               File RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList<Def> l = (LinkedList<Def>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		ArrayList<Def> l = (ArrayList<Def>)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int bleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int bright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList<Stmt> b = (LinkedList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new File(l, new Sblock(b)); 
+		ArrayList<Stmt> b = (ArrayList<Stmt>)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new File(l.toArray(new Def[0]),
+                         new Sblock(b.toArray(new Stmt[0]))); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("file",0, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
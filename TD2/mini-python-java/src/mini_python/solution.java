@@ -1,21 +1,37 @@
 package mini_python;
 
-import java.util.HashMap;
-import java.util.Iterator;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /* Values of Mini-Python.
 
    Two main differences wrt Python:
 
-   - We use here machine integers (Java type `long`) while Python
-     integers are arbitrary-precision integers (we could use Java
-     big integers but we opt for simplicity here).
+   - Integers are machine integers (Java type `long`, in Vint) as long as
+     they fit: every operation checks for overflow, and only then builds
+     an arbitrary-precision integer (a Vbig). So the results are those of
+     Python, but division and modulo round towards zero, as in Java.
 
    - What Python calls a ``list'' is a resizeable array. In Mini-Python,
-     there is no way to modify the length, so a mere Java array can be used.
+     the length can only grow, with the builtin `append(l, x)`, which is
+     `l.append(x)` in Python.
 */
 
 abstract class Value implements Comparable<Value> {
+
+  /* the type of a value; values of different types compare in the order
+     of their tags, which is the only ordering between types */
+  static final int NONE = 0, BOOL = 1, INT = 2, STRING = 3, LIST = 4;
+
+  final int tag;
+
+  Value(int tag) {
+    this.tag = tag;
+  }
+
   abstract boolean isFalse();
 
   boolean isTrue() {
@@ -24,18 +40,78 @@ abstract class Value implements Comparable<Value> {
 
   long asInt() {
     if (!(this instanceof Vint))
-      throw new Error("integer expected");
+      throw new Error(this instanceof Vbig ? "integer too large"
+                                           : "integer expected");
     return ((Vint) this).n;
   }
 
+  BigInteger asBig() {
+    if (this instanceof Vint)
+      return BigInteger.valueOf(((Vint) this).n);
+    if (!(this instanceof Vbig))
+      throw new Error("integer expected");
+    return ((Vbig) this).n;
+  }
+
   Vlist asList() {
     if (!(this instanceof Vlist))
       throw new Error("list expected");
     return (Vlist) this;
   }
+
+  @Override
+  public final int compareTo(Value o) {
+    if (this == o)
+      return 0;
+    if (tag != o.tag)
+      return tag < o.tag ? -1 : 1;
+    switch (tag) {
+    case NONE:
+      return 0;
+    case BOOL:
+      return Boolean.compare(((Vbool) this).b, ((Vbool) o).b);
+    case INT:
+      if (this instanceof Vint && o instanceof Vint)
+        return Long.compare(((Vint) this).n, ((Vint) o).n);
+      return asBig().compareTo(o.asBig());
+    case STRING:
+      return ((Vstring) this).s().compareTo(((Vstring) o).s());
+    default:
+      return ((Vlist) this).compareList((Vlist) o);
+    }
+  }
+
+  /* v1 == v2, which is compareTo(v1, v2) == 0, but returns early on
+     identical values, strings or lists of different lengths and strings
+     whose hashes are known to differ */
+  static boolean equal(Value v1, Value v2) {
+    if (v1 == v2)
+      return true;
+    if (v1.tag != v2.tag)
+      return false;
+    switch (v1.tag) {
+    case NONE:
+      return true;
+    case BOOL:
+      return ((Vbool) v1).b == ((Vbool) v2).b;
+    case INT:
+      // a Vbig does not fit in a long, so it is never equal to a Vint
+      if (v1 instanceof Vint)
+        return v2 instanceof Vint && ((Vint) v1).n == ((Vint) v2).n;
+      return v2 instanceof Vbig && ((Vbig) v1).n.equals(((Vbig) v2).n);
+    case STRING:
+      return ((Vstring) v1).equalString((Vstring) v2);
+    default:
+      return ((Vlist) v1).equalList((Vlist) v2);
+    }
+  }
 }
 
 class Vnone extends Value {
+  Vnone() {
+    super(NONE);
+  }
+
   @Override
   boolean isFalse() {
     return true;
@@ -45,17 +121,13 @@ class Vnone extends Value {
   public String toString() {
     return "None";
   }
-
-  @Override
-  public int compareTo(Value o) {
-    return o instanceof Vnone ? 0 : -1;
-  }
 }
 
 class Vbool extends Value {
   final boolean b;
 
   Vbool(boolean b) {
+    super(BOOL);
     this.b = b;
   }
 
@@ -68,26 +140,71 @@ class Vbool extends Value {
   boolean isFalse() {
     return !this.b;
   }
-
-  @Override
-  public int compareTo(Value o) {
-    if (o instanceof Vnone)
-      return 1;
-    if (o instanceof Vbool) {
-      boolean ob = ((Vbool) o).b;
-      return b ? (ob ? 0 : 1) : (ob ? -1 : 0);
-    }
-    return -1;
-  }
 }
 
 class Vint extends Value {
   final long n;
 
   Vint(long n) {
+    super(INT);
     this.n = n;
   }
 
+  // the small integers, which are shared when read from lists
+  private static final Vint[] SMALL = new Vint[1024 + 128];
+  static {
+    for (int i = 0; i < SMALL.length; i++)
+      SMALL[i] = new Vint(i - 128);
+  }
+
+  static Vint of(long n) {
+    return n >= -128 && n < 1024 ? SMALL[(int) n + 128] : new Vint(n);
+  }
+
+  /* The arithmetic operations, which check for overflow, and then
+     compute the result with big integers. */
+
+  static Value add(long a, long b) {
+    long r = a + b;
+    if (((a ^ r) & (b ^ r)) < 0)
+      return Vbig.of(BigInteger.valueOf(a).add(BigInteger.valueOf(b)));
+    return new Vint(r);
+  }
+
+  static Value sub(long a, long b) {
+    long r = a - b;
+    if (((a ^ b) & (a ^ r)) < 0)
+      return Vbig.of(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b)));
+    return new Vint(r);
+  }
+
+  static Value mul(long a, long b) {
+    long r = a * b;
+    if (Math.multiplyHigh(a, b) != r >> 63)
+      return Vbig.of(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+    return new Vint(r);
+  }
+
+  static Value div(long a, long b) {
+    if (b == 0)
+      throw new Error("division by zero");
+    if (a == Long.MIN_VALUE && b == -1)
+      return Vbig.of(BigInteger.valueOf(a).negate());
+    return new Vint(a / b);
+  }
+
+  static Value mod(long a, long b) {
+    if (b == 0)
+      throw new Error("division by zero");
+    return new Vint(a % b);
+  }
+
+  static Value neg(long a) {
+    if (a == Long.MIN_VALUE)
+      return Vbig.of(BigInteger.valueOf(a).negate());
+    return new Vint(-a);
+  }
+
   @Override
   public String toString() {
     return "" + this.n;
@@ -97,67 +214,404 @@ class Vint extends Value {
   boolean isFalse() {
     return this.n == 0;
   }
+}
 
-  @Override
-  public int compareTo(Value o) {
-    if (o instanceof Vnone || o instanceof Vbool)
-      return 1;
-    if (o instanceof Vint) {
-      long d = this.n - o.asInt();
-      return d < 0 ? -1 : d > 0 ? 1 : 0;
+/* An integer which does not fit in a long. Integers that fit always are
+   Vint, so a Vbig is never equal to a Vint. It has the same tag INT. */
+class Vbig extends Value {
+  final BigInteger n;
+
+  private Vbig(BigInteger n) {
+    super(INT);
+    this.n = n;
+  }
+
+  static Value of(BigInteger n) {
+    return n.bitLength() < 64 ? new Vint(n.longValue()) : new Vbig(n);
+  }
+
+  static Value arith(Binop op, BigInteger a, BigInteger b) {
+    switch (op) {
+    case Badd:
+      return of(a.add(b));
+    case Bsub:
+      return of(a.subtract(b));
+    case Bmul:
+      return of(a.multiply(b));
+    default:
+      if (b.signum() == 0)
+        throw new Error("division by zero");
+      // both round towards zero, as for Vint
+      return of(op == Binop.Bdiv ? a.divide(b) : a.remainder(b));
     }
-    return -1;
+  }
+
+  @Override
+  public String toString() {
+    return n.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return n.hashCode();
+  }
+
+  @Override
+  boolean isFalse() {
+    return false;
   }
 }
 
+/* A string is either flat, in `s`, or the concatenation of two strings
+   `left` and `right` (a rope). The characters of a rope are only gathered
+   when needed (printing, comparison), and then kept in `s` while the two
+   halves are dropped. Hence `s = s + "0"` in a loop takes linear time
+   instead of quadratic. The length is always known. */
 class Vstring extends Value {
-  final String s;
+  private String s;
+  private Vstring left, right;
+  final int length;
+  private int hash; // the hash of s, 0 until computed
+
+  // shorter concatenations are done right away
+  static final int SHORT = 64;
 
   Vstring(String s) {
+    super(STRING);
     this.s = s;
+    this.length = s.length();
+  }
+
+  private Vstring(Vstring left, Vstring right, int length) {
+    super(STRING);
+    this.left = left;
+    this.right = right;
+    this.length = length;
+  }
+
+  static Vstring concat(Vstring v1, Vstring v2) {
+    if (v2.length == 0)
+      return v1;
+    if (v1.length == 0)
+      return v2;
+    long n = (long) v1.length + v2.length;
+    if (n > Integer.MAX_VALUE - 8)
+      throw new Error("string too long");
+    if (n <= SHORT)
+      return new Vstring(v1.s() + v2.s());
+    return new Vstring(v1, v2, (int) n);
+  }
+
+  // the characters of the string
+  String s() {
+    String s = this.s;
+    return s != null ? s : flatten();
+  }
+
+  /* iterative, since the ropes built by loops are as deep as they are long;
+     synchronized, since the loops run by Parallel may share a rope */
+  private synchronized String flatten() {
+    if (s != null)
+      return s;
+    char[] b = new char[length];
+    int pos = 0;
+    ArrayDeque<Vstring> todo = new ArrayDeque<Vstring>();
+    todo.push(this);
+    while (!todo.isEmpty()) {
+      Vstring v = todo.pop();
+      String t = v.leaf(todo);
+      if (t != null) {
+        t.getChars(0, v.length, b, pos);
+        pos += v.length;
+      }
+    }
+    s = new String(b);
+    left = right = null;
+    return s;
+  }
+
+  /* the characters of a flat string; for a rope, pushes its halves on
+     `todo` and returns null. A rope flattened meanwhile by another thread
+     has lost its halves, and its characters are then read under its lock,
+     which flatten holds while it writes them. */
+  private String leaf(ArrayDeque<Vstring> todo) {
+    String t = s;
+    if (t != null)
+      return t;
+    Vstring l = left, r = right;
+    if (l == null || r == null)
+      synchronized (this) {
+        return s;
+      }
+    todo.push(r);
+    todo.push(l);
+    return null;
   }
 
   @Override
   public String toString() {
-    return this.s;
+    return s();
+  }
+
+  // writes the characters, without gathering those of a rope
+  void print(Output out) {
+    String t = s;
+    if (t != null) {
+      out.print(t);
+      return;
+    }
+    ArrayDeque<Vstring> todo = new ArrayDeque<Vstring>();
+    todo.push(this);
+    while (!todo.isEmpty()) {
+      t = todo.pop().leaf(todo);
+      if (t != null)
+        out.print(t);
+    }
   }
 
   @Override
   boolean isFalse() {
-    return this.s.length() == 0;
+    return this.length == 0;
   }
 
   @Override
-  public int compareTo(Value o) {
-    if (o instanceof Vnone || o instanceof Vbool || o instanceof Vint)
-      return 1;
-    if (o instanceof Vstring)
-      return this.s.compareTo(((Vstring) o).s);
-    return -1;
+  public int hashCode() {
+    if (hash == 0)
+      hash = s().hashCode();
+    return hash;
+  }
+
+  boolean equalString(Vstring o) {
+    if (length != o.length || hash != 0 && o.hash != 0 && hash != o.hash)
+      return false;
+    return s().equals(o.s());
   }
 }
 
+/* Lists.
+
+   The elements of a list are the first `size` cells of an array, which
+   may have spare capacity. While all the elements are integers, this is
+   the array `ints`, holding them unboxed; otherwise it is the array `a`.
+   A list switches from `ints` to `a` for good as soon as something other
+   than an integer is stored in it. Unboxed integers take 8 bytes, instead
+   of a reference and a Vint object; they are boxed again when read.
+
+   This array may be shared with other lists: l1 + l2 does not copy l1
+   when l1 owns its array and there is room after its elements, but writes
+   the elements of l2 there and gives the array to the result. l1 still
+   sees its own elements, which are now frozen: the owner of an array
+   copies it before writing a frozen cell, and a list which is not the
+   owner of its array copies it before any write (copy on write). Hence
+   building a list with `l = l + [x]`, or with `append`, takes amortized
+   constant time per element, while indexing stays a mere array access.
+
+   The result of `range(n)` is lazy: it has no array (`a` and `ints` are
+   null), its elements are built when they are read, and the array is only
+   built when the list is modified or concatenated. So iterating over a
+   range takes no memory. */
 class Vlist extends Value {
-  final Value[] l;
+  private Value[] a;
+  private long[] ints;
+  private int size;
+  private boolean owner = true;
+  private int frozen = 0; // the cells of the array that other lists see
+
+  // the list [0, 1, ..., n-1]
+  static Vlist range(int n) {
+    return new Vlist(null, null, n, 0);
+  }
 
-  Vlist(int n) {
-    this.l = new Value[n];
+  // a list of the elements of a, which must not be used elsewhere
+  Vlist(Value[] a) {
+    super(LIST);
+    this.size = a.length;
+    this.ints = unbox(a);
+    if (this.ints == null)
+      this.a = a;
   }
 
-  Vlist(Value[] l1, Value[] l2) {
-    this.l = new Value[l1.length + l2.length];
-    System.arraycopy(l1, 0, l, 0, l1.length);
-    System.arraycopy(l2, 0, l, l1.length, l2.length);
+  private Vlist(Value[] a, long[] ints, int size, int frozen) {
+    super(LIST);
+    this.a = a;
+    this.ints = ints;
+    this.size = size;
+    this.frozen = frozen;
+  }
+
+  // the integers of a, or null if it has other elements
+  private static long[] unbox(Value[] a) {
+    for (Value v: a)
+      if (!(v instanceof Vint))
+        return null;
+    long[] ints = new long[a.length];
+    for (int i = 0; i < a.length; i++)
+      ints[i] = ((Vint) a[i]).n;
+    return ints;
+  }
+
+  int size() {
+    return size;
+  }
+
+  // whether the elements are integers that can be read with intAt
+  boolean unboxed() {
+    return ints != null || a == null;
+  }
+
+  long intAt(int i) {
+    return ints != null ? ints[i] : i;
+  }
+
+  // i must be a valid index
+  Value get(int i) {
+    if (ints != null)
+      return Vint.of(ints[i]);
+    return a != null ? a[i] : Vint.of(i);
+  }
+
+  void set(int i, Value v) {
+    if (a == null && ints == null)
+      materialize();
+    if (ints != null) {
+      if (v instanceof Vint) {
+        if (!owner || i < frozen)
+          unshare();
+        ints[i] = ((Vint) v).n;
+        return;
+      }
+      box();
+    } else if (!owner || i < frozen)
+      unshare();
+    a[i] = v;
+  }
+
+  void append(Value v) {
+    if (a == null && ints == null)
+      materialize();
+    if (ints != null) {
+      if (v instanceof Vint) {
+        if (!owner)
+          unshare();
+        if (size == ints.length) {
+          ints = Arrays.copyOf(ints, Math.max(4, grow(size, 1)));
+          frozen = 0;
+        }
+        ints[size++] = ((Vint) v).n;
+        return;
+      }
+      box();
+    } else if (!owner)
+      unshare();
+    if (size == a.length) {
+      // the new array is not shared
+      a = Arrays.copyOf(a, Math.max(4, grow(size, 1)));
+      frozen = 0;
+    }
+    a[size++] = v;
+  }
+
+  private void materialize() {
+    ints = ints();
+  }
+
+  // the elements of a range
+  private long[] ints() {
+    long[] ints = new long[size];
+    for (int i = 0; i < size; i++)
+      ints[i] = i;
+    return ints;
+  }
+
+  /* gives the spare capacity of the array of the list, which has
+     `capacity` cells, to a concatenation needing n cells: the list is no
+     longer the owner of its array. Two threads may try this on the same
+     list, hence the lock. */
+  private boolean claim(int n, int capacity) {
+    if (n > capacity)
+      return false;
+    synchronized (this) {
+      if (!owner)
+        return false;
+      owner = false;
+      return true;
+    }
+  }
+
+  // switches from `ints` to a new array `a`, which is not shared
+  private void box() {
+    Value[] a = new Value[size];
+    copy(this, a, 0);
+    this.a = a;
+    ints = null;
+    owner = true;
+    frozen = 0;
+  }
+
+  private void unshare() {
+    if (ints != null)
+      ints = Arrays.copyOf(ints, size);
+    else
+      a = Arrays.copyOf(a, size);
+    owner = true;
+    frozen = 0;
+  }
+
+  // copies the elements of l into a, from index i
+  private static void copy(Vlist l, Value[] a, int i) {
+    if (l.a != null)
+      System.arraycopy(l.a, 0, a, i, l.size);
+    else
+      for (int j = 0; j < l.size; j++)
+        a[i + j] = l.get(j);
+  }
+
+  static int grow(int n1, int n2) {
+    long n = 2L * n1 + n2;
+    if (n1 + (long) n2 > Integer.MAX_VALUE - 8)
+      throw new Error("list too long");
+    return (int) Math.min(n, Integer.MAX_VALUE - 8);
+  }
+
+  /* Ranges are read into new arrays, but stay lazy: the loops run by
+     Parallel may share them, and only read them. For the same reason, the
+     array of l1 is taken under its lock (see claim). */
+  static Vlist concat(Vlist l1, Vlist l2) {
+    int n1 = l1.size, n2 = l2.size;
+    long[] ints1 = l1.a == null && l1.ints == null ? l1.ints() : l1.ints;
+    long[] ints2 = l2.a == null && l2.ints == null ? l2.ints() : l2.ints;
+    if (ints1 != null && ints2 != null) {
+      if (ints1 == l1.ints && l1.claim(n1 + n2, ints1.length)) {
+        // in place; l1 keeps its elements, which are now frozen
+        System.arraycopy(ints2, 0, ints1, n1, n2);
+        return new Vlist(null, ints1, n1 + n2, n1);
+      }
+      // a new array, with spare capacity if l1 may be extended again
+      long[] ints = Arrays.copyOf(ints1, l1.owner ? grow(n1, n2) : n1 + n2);
+      System.arraycopy(ints2, 0, ints, n1, n2);
+      return new Vlist(null, ints, n1 + n2, 0);
+    }
+    if (l1.a != null && l1.claim(n1 + n2, l1.a.length)) {
+      copy(l2, l1.a, n1);
+      return new Vlist(l1.a, null, n1 + n2, n1);
+    }
+    Value[] a = new Value[l1.owner ? grow(n1, n2) : n1 + n2];
+    copy(l1, a, 0);
+    copy(l2, a, n1);
+    return new Vlist(a, null, n1 + n2, 0);
   }
 
   @Override
   public String toString() {
     StringBuffer b = new StringBuffer();
     b.append("[");
-    for (int i = 0; i < this.l.length; i++) {
+    for (int i = 0; i < this.size; i++) {
       if (i != 0)
         b.append(", ");
-      b.append(this.l[i]);
+      if (ints != null)
+        b.append(ints[i]);
+      else
+        b.append(get(i));
     }
     b.append("]");
     return b.toString();
@@ -165,32 +619,51 @@ class Vlist extends Value {
 
   @Override
   boolean isFalse() {
-    return this.l.length == 0;
+    return this.size == 0;
   }
 
-  @Override
-  public int compareTo(Value o) {
-    if (!(o instanceof Vlist))
-      return -1;
-    Value[] ol = ((Vlist) o).l;
-    int n1 = this.l.length, n2 = ol.length;
+  int compareList(Vlist ol) {
+    int n1 = this.size, n2 = ol.size;
     int i1 = 0, i2 = 0;
-    for (; i1 < n1 && i2 < n2; i1++, i2++) {
-      Value v1 = this.l[i1];
-      Value v2 = ol[i2];
-      int c = v1.compareTo(v2);
-      if (c != 0)
-        return c;
-    }
+    if (this.ints != null && ol.ints != null) {
+      // as Value.compareTo, without boxing
+      for (; i1 < n1 && i2 < n2; i1++, i2++) {
+        int c = Long.compare(this.ints[i1], ol.ints[i2]);
+        if (c != 0)
+          return c;
+      }
+    } else
+      for (; i1 < n1 && i2 < n2; i1++, i2++) {
+        Value v1 = this.get(i1);
+        Value v2 = ol.get(i2);
+        int c = v1.compareTo(v2);
+        if (c != 0)
+          return c;
+      }
     if (i1 < n1)
       return 1;
     if (i2 < n2)
       return -1;
     return 0;
   }
+
+  boolean equalList(Vlist ol) {
+    int n = size;
+    if (n != ol.size)
+      return false;
+    if (ints != null && ol.ints != null)
+      return Arrays.equals(ints, 0, n, ol.ints, 0, n);
+    if (a == null && ints == null && ol.a == null && ol.ints == null)
+      return true; // two ranges
+    for (int i = 0; i < n; i++)
+      if (!Value.equal(get(i), ol.get(i)))
+        return false;
+    return true;
+  }
 }
 
-/* The following exception is used to interpret Python's `return`.
+/* The following exception is raised by a `return` at toplevel, which is
+   an error (functions return without exceptions, see Interp.returned).
 
    Note: this is an unchecked exception, so that we don't have to
    add `throws` declarations to the visitor methods. */
@@ -200,6 +673,7 @@ class Return extends RuntimeException {
   final Value v;
 
   Return(Value v) {
+    super(null, null, false, false); // no stack trace, which is costly
     this.v = v;
   }
 }
@@ -243,53 +717,68 @@ class Interp implements Visitor {
     this.value = new Vint(c.n);
   }
 
-  // local variables
-  HashMap<String, Value> vars;
+  // local variables, indexed by the slots computed by Resolver
+  Value[] vars;
 
-  Interp() {
-    this.vars = new HashMap<String, Value>();
-  }
+  /* The value of the `return` being executed, if any.
+
+     A `return` does not throw an exception: it sets this field, and the
+     enclosing blocks and loops stop executing their statements as soon as
+     it is set. The call then reads the value here. */
+  Value returned = null;
+
+  /* A tail call of a function to itself (see Resolver) sets `returned` to
+     TAIL_CALL after evaluating the arguments in `next`; the call then runs
+     the body again in the same frame, instead of nesting a new one. */
+  static final Value TAIL_CALL = new Vnone();
+  Value[] next = null;
 
-  // functions definitions (functions are global, hence `static`)
-  static HashMap<String, Def> functions = new HashMap<String, Def>();
+  // the program being run: its functions, its output... (see Run)
+  final Run run;
+
+  // the output of `print`, which is only redirected by Parallel
+  Output out;
+
+  Interp(Run run, int frameSize) {
+    this.run = run;
+    this.out = run.out;
+    this.vars = new Value[frameSize];
+  }
 
   // binary operators
   static Value binop(Binop op, Value v1, Value v2) {
+    // integers that fit take the fast path, the others are big integers
     switch (op) {
     case Bsub:
+      if (v1 instanceof Vint && v2 instanceof Vint)
+        return Vint.sub(((Vint) v1).n, ((Vint) v2).n);
+      return Vbig.arith(op, v1.asBig(), v2.asBig());
     case Bmul:
+      if (v1 instanceof Vint && v2 instanceof Vint)
+        return Vint.mul(((Vint) v1).n, ((Vint) v2).n);
+      return Vbig.arith(op, v1.asBig(), v2.asBig());
     case Bdiv:
+      if (v1 instanceof Vint && v2 instanceof Vint)
+        return Vint.div(((Vint) v1).n, ((Vint) v2).n);
+      return Vbig.arith(op, v1.asBig(), v2.asBig());
     case Bmod:
-      long i1 = v1.asInt();
-      long i2 = v2.asInt();
-      switch (op) {
-      case Bsub:
-        return new Vint(i1 - i2);
-      case Bmul:
-        return new Vint(i1 * i2);
-      case Bdiv:
-        if (i2 == 0)
-          throw new Error("division by zero");
-        return new Vint(i1 / i2);
-      case Bmod:
-        if (i2 == 0)
-          throw new Error("division by zero");
-        return new Vint(i1 % i2);
-      default:
-      }
-      break;
+      if (v1 instanceof Vint && v2 instanceof Vint)
+        return Vint.mod(((Vint) v1).n, ((Vint) v2).n);
+      return Vbig.arith(op, v1.asBig(), v2.asBig());
     case Badd:
       if (v1 instanceof Vint && v2 instanceof Vint)
-        return new Vint(v1.asInt() + v2.asInt());
+        return Vint.add(((Vint) v1).n, ((Vint) v2).n);
+      if (v1.tag == Value.INT && v2.tag == Value.INT)
+        return Vbig.arith(op, v1.asBig(), v2.asBig());
       if (v1 instanceof Vstring && v2 instanceof Vstring)
-        return new Vstring(((Vstring) v1).s + ((Vstring) v2).s);
+        return Vstring.concat((Vstring) v1, (Vstring) v2);
       if (v1 instanceof Vlist && v2 instanceof Vlist)
-        return new Vlist(((Vlist) v1).l, ((Vlist) v2).l);
+        return Vlist.concat((Vlist) v1, (Vlist) v2);
       break;
     case Beq:
-      return new Vbool(v1.compareTo(v2) == 0);
+      return new Vbool(Value.equal(v1, v2));
     case Bneq:
-      return new Vbool(v1.compareTo(v2) != 0);
+      return new Vbool(!Value.equal(v1, v2));
     case Blt:
       return new Vbool(v1.compareTo(v2) < 0);
     case Ble:
@@ -303,6 +792,70 @@ class Interp implements Visitor {
     throw new Error("unsupported operand types");
   }
 
+  // built-in functions (shared with the other engines)
+  static Value len(Value v) {
+    if (v instanceof Vstring)
+      return new Vint(((Vstring) v).length);
+    if (v instanceof Vlist)
+      return new Vint(((Vlist) v).size());
+    throw new Error("this value has no 'len'");
+  }
+
+  static Value neg(Value v) {
+    if (v instanceof Vint)
+      return Vint.neg(((Vint) v).n);
+    return Vbig.of(v.asBig().negate());
+  }
+
+  static Value append(Value l, Value v) {
+    l.asList().append(v);
+    return new Vnone();
+  }
+
+  // the function given to pmap, which must take one argument
+  static Def mapped(Map<String, Def> functions, Expr e) {
+    if (!(e instanceof Eident))
+      throw new Error("pmap expects a function");
+    String id = ((Eident) e).x.id;
+    Def d = functions.get(id);
+    if (d == null)
+      throw new Error("unbound function " + id);
+    if (d.l.length != 1)
+      throw new Error("bad arity");
+    return d;
+  }
+
+  /* pmap(d, l): the list of the d(x) for x in l, in order. It is computed
+     in parallel with --parallel, when d is pure (see Parallel). */
+  static Value map(Run run, Def d, Value v) {
+    Vlist l = v.asList();
+    if (run.parallel != null) {
+      Value r = run.parallel.map(d, l);
+      if (r != null)
+        return r;
+    }
+    return map(l, x -> apply(run, d, new Value[] { x }));
+  }
+
+  // pmap run sequentially; as in a loop, the list may grow meanwhile
+  static Value map(Vlist l, UnaryOperator<Value> f) {
+    Value[] r = new Value[l.size()];
+    int n = 0;
+    for (int i = 0; i < l.size(); i++) {
+      if (n == r.length)
+        r = Arrays.copyOf(r, Vlist.grow(n, 1));
+      r[n++] = f.apply(l.get(i));
+    }
+    return new Vlist(n == r.length ? r : Arrays.copyOf(r, n));
+  }
+
+  static Value range(Value v) {
+    long n = Math.max(0, v.asInt());
+    if (n > Integer.MAX_VALUE - 8)
+      throw new Error("list too long");
+    return Vlist.range((int)n);
+  }
+
   // interpreting expressions
 
   @Override
@@ -312,6 +865,10 @@ class Interp implements Visitor {
 
   @Override
   public void visit(Ebinop e) {
+    if (e.parallel && run.parallel.forks()) {
+      this.value = run.parallel.fork(this, e);
+      return;
+    }
     Value v1 = evalExpr(e.e1);
     switch (e.op) {
     case Band:
@@ -332,7 +889,7 @@ class Interp implements Visitor {
       this.value = new Vbool(evalExpr(e.e).isFalse());
       break;
     case Uneg:
-      this.value = new Vint(-evalExpr(e.e).asInt());
+      this.value = neg(evalExpr(e.e));
       break;
     }
   }
@@ -341,59 +898,93 @@ class Interp implements Visitor {
   public void visit(Ecall e) {
     switch (e.f.id) {
     case "len":
-      if (e.l.size() != 1)
+      if (e.l.length != 1)
         throw new Error("bad arity");
-      Value v = evalExpr(e.l.get(0));
-      if (v instanceof Vstring)
-        this.value = new Vint(((Vstring) v).s.length());
-      if (v instanceof Vlist)
-        this.value = new Vint(((Vlist) v).l.length);
-      throw new Error("this value has no 'len'");
+      this.value = len(evalExpr(e.l[0]));
+      break;
     case "list":
-      if (e.l.size() != 1)
+      if (e.l.length != 1)
         throw new Error("bad arity");
-      this.value = evalExpr(e.l.get(0));
+      this.value = evalExpr(e.l[0]);
       break;
     case "range":
-      if (e.l.size() != 1)
+      if (e.l.length != 1)
+        throw new Error("bad arity");
+      this.value = range(evalExpr(e.l[0]));
+      break;
+    case "append":
+      if (e.l.length != 2)
         throw new Error("bad arity");
-      long n = Math.max(0, evalExpr(e.l.get(0)).asInt());
-      Vlist l = new Vlist((int)n);
-      for (int i = 0; i < n; i++)
-        l.l[i] = new Vint(i);
-      this.value = l;
+      Value l = evalExpr(e.l[0]);
+      this.value = append(l, evalExpr(e.l[1]));
+      break;
+    case "pmap":
+      if (e.l.length != 2)
+        throw new Error("bad arity");
+      Def f = mapped(run.functions, e.l[0]);
+      this.value = map(run, f, evalExpr(e.l[1]));
       break;
     default:
-      Def d = functions.get(e.f.id);
+      Def d = run.functions.get(e.f.id);
       if (d == null)
         throw new Error("unbound function " + e.f.id);
-      if (e.l.size() != d.l.size())
+      if (e.l.length != d.l.length)
         throw new Error("bad arity");
-      Interp ctxf = new Interp();
-      Iterator<Ident> it = d.l.iterator();
+      Value[] args = new Value[e.l.length];
+      int i = 0;
       for (Expr e1 : e.l)
-        ctxf.vars.put(it.next().id, evalExpr(e1));
-      try {
-        d.s.accept(ctxf);
-        this.value = new Vnone();
-      } catch (Return r) {
-        this.value = r.v;
-      }
+        args[i++] = evalExpr(e1);
+      this.value = apply(run, d, args);
     }
   }
 
+  // calls function d, compiled (see Jit) or memoized when possible
+  static Value apply(Run run, Def d, Value[] args) {
+    if (d.jit != null)
+      return d.jit.call(args);
+    if (run.memo != null && run.memo.isPure(d))
+      return run.memo.call(d, args);
+    return call(run, d, args);
+  }
+
+  // calls function d in a new environment
+  static Value call(Run run, Def d, Value[] args) {
+    Interp ctxf = new Interp(run, d.frameSize);
+    while (true) {
+      for (int i = 0; i < args.length; i++)
+        ctxf.vars[d.l[i].slot] = args[i];
+      d.s.accept(ctxf);
+      if (ctxf.returned != TAIL_CALL)
+        return ctxf.returned != null ? ctxf.returned : new Vnone();
+      // a tail call: the arguments are in ctxf.next, which is free again
+      // once they are copied into the frame
+      args = ctxf.next;
+      ctxf.returned = null;
+      Arrays.fill(ctxf.vars, null);
+    }
+  }
+
+  // runs the global block of a program
+  static void run(Run run, File f) {
+    Interp ctx = new Interp(run, f.frameSize);
+    f.s.accept(ctx);
+    // a `return` at toplevel fails
+    if (ctx.returned != null)
+      throw new Return(ctx.returned);
+  }
+
   @Override
   public void visit(Elist e) {
-    Vlist v = new Vlist(e.l.size());
+    Value[] l = new Value[e.l.length];
     int i = 0;
     for (Expr e1 : e.l)
-      v.l[i++] = evalExpr(e1);
-    this.value = v;
+      l[i++] = evalExpr(e1);
+    this.value = new Vlist(l);
   }
 
   @Override
   public void visit(Eident id) {
-    Value v = vars.get(id.x.id);
+    Value v = vars[id.x.slot];
     if (v == null)
       throw new Error("unbound variable " + id.x.id);
     this.value = v;
@@ -403,9 +994,9 @@ class Interp implements Visitor {
   public void visit(Eget e) {
     Vlist v = evalExpr(e.e1).asList();
     long i = evalExpr(e.e2).asInt();
-    if (i < 0 || i >= v.l.length)
+    if (i < 0 || i >= v.size())
       throw new Error("index out of bounds");
-    this.value = v.l[(int)i];
+    this.value = v.get((int)i);
   }
 
   // interpreting statements
@@ -414,9 +1005,9 @@ class Interp implements Visitor {
   public void visit(Sset s) {
     Vlist v = evalExpr(s.e1).asList();
     long i = evalExpr(s.e2).asInt();
-    if (i < 0 || i >= v.l.length)
+    if (i < 0 || i >= v.size())
       throw new Error("index out of bounds");
-    v.l[(int)i] = evalExpr(s.e3);
+    v.set((int)i, evalExpr(s.e3));
   }
 
   @Override
@@ -429,31 +1020,49 @@ class Interp implements Visitor {
 
   @Override
   public void visit(Sreturn s) {
-    throw new Return(evalExpr(s.e));
+    if (!s.tail) {
+      returned = evalExpr(s.e);
+      return;
+    }
+    Ecall c = (Ecall) s.e;
+    if (next == null)
+      next = new Value[c.l.length];
+    int i = 0;
+    for (Expr e1 : c.l)
+      next[i++] = evalExpr(e1);
+    returned = TAIL_CALL;
   }
 
   @Override
   public void visit(Sassign s) {
-    vars.put(s.x.id, evalExpr(s.e));
+    vars[s.x.slot] = evalExpr(s.e);
   }
 
   @Override
   public void visit(Sprint s) {
-    System.out.println(evalExpr(s.e).toString());
+    out.println(evalExpr(s.e));
   }
 
   @Override
   public void visit(Sblock s) {
-    for (Stmt st: s.l)
+    for (Stmt st: s.l) {
       st.accept(this);
+      if (returned != null)
+        return;
+    }
   }
 
   @Override
   public void visit(Sfor s) {
     Vlist l = evalExpr(s.e).asList();
-    for (Value v: l.l) {
-      vars.put(s.x.id, v);
+    if (s.parallel && run.parallel.run(this, s, l))
+      return;
+    // the list may grow while it is iterated, as in Python
+    for (int i = 0; i < l.size(); i++) {
+      vars[s.x.slot] = l.get(i);
       s.s.accept(this);
+      if (returned != null)
+        return;
     }
   }
 
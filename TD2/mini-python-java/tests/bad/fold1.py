@@ -0,0 +1,4 @@
+def bad(x):
+    return x // 0
+if True:
+    print(bad(1))
@@ -0,0 +1,12 @@
+def fib(n):
+    if n < 2:
+        return n
+    return fib(n - 1) + fib(n - 2)
+def get(l, n):
+    if n < 2:
+        return l[n]
+    return get(l, n - 1) + get(l, n - 2)
+n = 15
+print(fib(n) + get([0, 1], n))
+print(fib(n) + get([0], n))
+print(n)
@@ -0,0 +1,11 @@
+def div(n):
+    if n < 2:
+        return 1 // n
+    return div(n - 1) + div(n - 2)
+def get(l, n):
+    if n < 2:
+        return l[n]
+    return get(l, n - 1) + get(l, n - 2)
+n = 3
+print(n)
+print(div(n) + get([0], n))
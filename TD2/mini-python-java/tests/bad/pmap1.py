@@ -0,0 +1,3 @@
+def inverse(x):
+    return 100 // x
+print(pmap(inverse, [1, 2, 0, 4]))
@@ -0,0 +1,8 @@
+def check(x):
+    if x == 3:
+        return [0][x]
+    if x == 7:
+        return 1 // 0
+    return x
+print(pmap(check, [0, 1, 2]))
+print(pmap(check, list(range(10))))
@@ -0,0 +1,33 @@
+def f(l, i, n):
+    k = 0
+    if n % 2:
+        k = k + 1
+    if not n - 4:
+        k = k + 10
+    if n * n and i:
+        k = k + 100
+    l[i + 1] = l[2 * i] + k
+    return l[i - 1 + 1]
+def g(l, n):
+    if n * n * n * n * n * n * n * n * n * n - 1:
+        return l[n * n * n * n * n - n * n * n * n * n + n % 7]
+    return -1
+def h(l):
+    print(l[len(l) - 1])
+    print(l[len(l) * len(l) - 91])
+    print(len(l) * 9223372036854775807 - len(l) * 9223372036854775806)
+    for i in range(len(l)):
+        if len(l) - i < 3:
+            print(i - len(l))
+    return len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l) * len(l)
+l = [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]
+for n in range(6):
+    print(f(l, 1, n))
+    print(l)
+print(f(l, 4, 9223372036854775807))
+print(f(l, 4, 0 - 9223372036854775807 - 1))
+print(l)
+print(g(l, 1))
+print(g(l, 2))
+print(g(l, 100000))
+print(h(l))
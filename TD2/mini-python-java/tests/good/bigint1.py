@@ -0,0 +1,37 @@
+def fact(n):
+    if n <= 1:
+        return 1
+    return n * fact(n - 1)
+def fib(n):
+    a = 0
+    b = 1
+    for i in range(n):
+        c = a + b
+        a = b
+        b = c
+    return a
+def twice(x):
+    return x + x
+m = -9223372036854775807 - 1
+print(m)
+print(-m)
+print(m - 1)
+print(m * -1 - 1)
+print(m // -1)
+print(fact(30))
+print(fact(30) // fact(28))
+print(fact(25) % 1000007)
+print(fib(100))
+print(fib(100) - fib(99) == fib(98))
+print(twice(9223372036854775807))
+print(twice(9223372036854775807) - 9223372036854775807)
+x = 4611686018427387904 * 4
+print(x)
+print(x > 9223372036854775807)
+print(-x < m)
+print([x, 1] == [x, 1])
+print([1, x] < [1, x + 1])
+l = [1, 2]
+l[0] = x * x
+print(l)
+print(len([fact(21)]))
@@ -0,0 +1,21 @@
+def range(n):
+    return 5
+def len(l):
+    return 7
+def list(l):
+    return 0
+def append(l, x):
+    return 1
+def pmap(f, l):
+    return 2
+def double(x):
+    return 2 * x
+print(range(3))
+print(len([1, 2]))
+print(list([4]))
+l = []
+append(l, 3)
+print(l)
+print(pmap(double, [1, 2]))
+for i in range(2):
+    print(i)
@@ -0,0 +1,17 @@
+l = [1, [2, "ab"], None]
+m = l
+print(l == m)
+print(l != m)
+print(l == [1, [2, "ab"], None])
+print(l == [1, [2, "ab"]])
+print([1, 2] == [1, 2, 3])
+print(list(range(5)) == [0, 1, 2, 3, 4])
+print(list(range(5)) == list(range(5)))
+print(list(range(5)) != list(range(4)))
+print([None] == [None])
+print([1] == None)
+print(None != [1])
+print("abc" == "ab" + "c")
+print("abc" != "abd")
+print(["x", 1] < ["x", 2])
+print([[1, 2], 3] > [[1], 4])
@@ -0,0 +1,12 @@
+s = ""
+for i in range(1000):
+    s = s + "0"
+print(len(s))
+t = ""
+for i in range(100):
+    t = "ab" + t + "c"
+print(len(t))
+print(t)
+print(t < s)
+print(s + t == s + t)
+print(s + "" == s)
@@ -0,0 +1,20 @@
+def sq(x):
+    return x * x
+def bad(x):
+    return x // 0
+def sign(x):
+    if x < 0:
+        return -1
+    if x == 0:
+        return 0
+    return 1
+if 1 < 2:
+    print(sq(3) + 1)
+else:
+    print(bad(1))
+print(-(2 + 3) * 4)
+print(not 0)
+print("a" + "b")
+print(len("abc"))
+print(0 and bad(1))
+print([sign(-5), sign(0), sign(sq(2))])
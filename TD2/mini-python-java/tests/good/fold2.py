@@ -0,0 +1,118 @@
+def f0(x):
+    return x + 1
+def f1(x):
+    return f0(x) + f0(x)
+def f2(x):
+    return f1(x) + f1(x)
+def f3(x):
+    return f2(x) + f2(x)
+def f4(x):
+    return f3(x) + f3(x)
+def f5(x):
+    return f4(x) + f4(x)
+def f6(x):
+    return f5(x) + f5(x)
+def f7(x):
+    return f6(x) + f6(x)
+def f8(x):
+    return f7(x) + f7(x)
+def f9(x):
+    return f8(x) + f8(x)
+def f10(x):
+    return f9(x) + f9(x)
+def f11(x):
+    return f10(x) + f10(x)
+def f12(x):
+    return f11(x) + f11(x)
+def f13(x):
+    return f12(x) + f12(x)
+def f14(x):
+    return f13(x) + f13(x)
+def f15(x):
+    return f14(x) + f14(x)
+def f16(x):
+    return f15(x) + f15(x)
+def f17(x):
+    return f16(x) + f16(x)
+def f18(x):
+    return f17(x) + f17(x)
+def f19(x):
+    return f18(x) + f18(x)
+def f20(x):
+    return f19(x) + f19(x)
+def f21(x):
+    return f20(x) + f20(x)
+def f22(x):
+    return f21(x) + f21(x)
+def f23(x):
+    return f22(x) + f22(x)
+def f24(x):
+    return f23(x) + f23(x)
+def f25(x):
+    return f24(x) + f24(x)
+def f26(x):
+    return f25(x) + f25(x)
+def g0(x):
+    return x + 1
+def g1(x):
+    return g0(g0(x))
+def g2(x):
+    return g1(g1(x))
+def g3(x):
+    return g2(g2(x))
+def g4(x):
+    return g3(g3(x))
+def g5(x):
+    return g4(g4(x))
+def g6(x):
+    return g5(g5(x))
+def g7(x):
+    return g6(g6(x))
+def g8(x):
+    return g7(g7(x))
+def g9(x):
+    return g8(g8(x))
+def g10(x):
+    return g9(g9(x))
+def g11(x):
+    return g10(g10(x))
+def g12(x):
+    return g11(g11(x))
+def g13(x):
+    return g12(g12(x))
+def g14(x):
+    return g13(g13(x))
+def g15(x):
+    return g14(g14(x))
+def g16(x):
+    return g15(g15(x))
+def g17(x):
+    return g16(g16(x))
+def g18(x):
+    return g17(g17(x))
+def g19(x):
+    return g18(g18(x))
+def g20(x):
+    return g19(g19(x))
+def g21(x):
+    return g20(g20(x))
+def g22(x):
+    return g21(g21(x))
+def g23(x):
+    return g22(g22(x))
+def g24(x):
+    return g23(g23(x))
+def g25(x):
+    return g24(g24(x))
+def g26(x):
+    return g25(g25(x))
+def g27(x):
+    return g26(g26(x))
+def g28(x):
+    return g27(g27(x))
+def g29(x):
+    return g28(g28(x))
+def h():
+    return f26(1) + g29(0)
+print(f4(1))
+print(g4(0))
@@ -0,0 +1,7 @@
+def size(x):
+    return len(x)
+print(len("abc"))
+print(len([1, 2, 3, 4]))
+for x in ["", "hello", [], [[1, 2], 3], "ab" + "cd", [0] + [1, 2]]:
+    print(len(x))
+    print(size(x))
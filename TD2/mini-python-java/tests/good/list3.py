@@ -0,0 +1,35 @@
+a = [1, 2]
+b = a + [3]
+c = a + [4]
+b[0] = 10
+print(a)
+print(b)
+print(c)
+append(a, 5)
+print(a)
+print(b)
+print(c)
+l = []
+for i in range(10):
+    l = l + [i]
+    l[i] = l[i] * 2
+print(l)
+m = l
+append(m, 20)
+print(l)
+print(len(l))
+n = l + l
+print(n)
+l2 = [1]
+for x in l2:
+    if x < 5:
+        append(l2, x + 1)
+print(l2)
+print(append(l2, 6))
+d = b + [7]
+e = b + [8]
+b[1] = 9
+d[2] = 0
+print(b)
+print(d)
+print(e)
@@ -0,0 +1,24 @@
+l = [1, 2, 3]
+m = l + [4]
+l[0] = None
+print(l)
+print(m)
+m[1] = -5
+print(m)
+print(m + l)
+print(l + m)
+r = list(range(4))
+r[2] = None
+print(r)
+print([1, 2, 3] < [1, 2, 4])
+print([1, 2] < [1, 2, 0])
+print([3, -1] == [3, -1])
+a = [0]
+b = a + [1]
+c = a + [2]
+print(b)
+print(c)
+append(a, True)
+print(a)
+append(b, 7)
+print(b)
@@ -0,0 +1,45 @@
+def square(x):
+    return x * x
+def show(x):
+    print(x)
+    return x
+def first(n):
+    for i in range(20):
+        print(i)
+        if i == n:
+            return i
+    return -1
+for i in range(20):
+    y = square(i)
+    print(y)
+print(y)
+last = -1
+for i in range(20):
+    if i % 7 == 0:
+        last = i
+print(last)
+s = 0
+for i in range(20):
+    s = s + square(i)
+print(s)
+l = []
+for i in range(20):
+    append(l, square(i))
+print(l)
+m = list(range(20))
+for i in range(20):
+    m[i] = square(i)
+print(m)
+prev = 0
+for i in range(20):
+    if i > 0:
+        print(prev)
+    prev = i
+n = 0
+for i in range(20):
+    n = n + 1
+    x = n
+print(x)
+for i in range(4):
+    print(10 * show(i))
+print(first(3))
@@ -0,0 +1,21 @@
+def fib(n):
+    if n < 2:
+        return n
+    return fib(n - 1) + fib(n - 2)
+def total(l, lo, hi):
+    if hi - lo == 1:
+        return l[lo]
+    mid = (lo + hi) // 2
+    return total(l, lo, mid) + total(l, mid, hi)
+def square(x):
+    return x * x
+n = 20
+print(fib(n))
+print(fib(n) - fib(n - 1))
+print(fib(n - 1) < fib(n))
+print(fib(n) * fib(n - 2) - fib(n - 1) * fib(n - 1))
+print(square(n) + square(n + 1))
+l = list(range(1000))
+print(total(l, 0, len(l)))
+for i in range(15):
+    print(fib(i) + fib(i + 1) - fib(i + 2))
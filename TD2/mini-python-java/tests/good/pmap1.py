@@ -0,0 +1,15 @@
+def fib(n):
+    if n < 2: return n
+    return fib(n-1) + fib(n-2)
+def square(x):
+    return x * x
+def show(x):
+    print(x)
+    return len(x)
+print(pmap(fib, list(range(20))))
+print(pmap(square, []))
+print(pmap(square, [3]))
+print(pmap(square, [10000000000, 5]))
+print(pmap(show, ["a", "bc", "def"]))
+for i in range(3):
+    print(pmap(square, list(range(i))))
@@ -0,0 +1,16 @@
+def fib(n):
+    if n < 2:
+        return n
+    return fib(n - 1) + fib(n - 2)
+def square(x):
+    return x * x
+def squares(l):
+    return pmap(square, l)
+def show(x):
+    print(x)
+    return x
+print(pmap(square, list(range(100))))
+print(pmap(squares, [[1, 2], [3], [], list(range(10))]))
+for i in range(6):
+    print(pmap(fib, list(range(i * 3))))
+print(pmap(show, pmap(square, [1, 2, 3])))
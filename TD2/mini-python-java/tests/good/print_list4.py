@@ -0,0 +1,16 @@
+l = [1, -2, [3, [], [-9223372036854775807 - 1]], True, None]
+print(l)
+print([l, l])
+c = [0]
+append(c, c)
+append(c, [c, 5])
+print(c)
+d = [0]
+for i in range(200):
+    d = [d, i]
+print(len(d))
+r = list(range(12))
+print(r)
+r[3] = [r[4]]
+print(r)
+print([10000000000 * 10000000000, 0, -0])
@@ -0,0 +1,6 @@
+s = ""
+for i in range(3000):
+    print(i * i)
+    s = s + "ab"
+print(s)
+print(len(s))
@@ -0,0 +1,16 @@
+s = 0
+for i in list(range(1000000)):
+    s = s + i
+print(s)
+r = list(range(5))
+print(r)
+print(r[3])
+r[2] = 10
+print(r)
+append(r, 5)
+print(r)
+print(list(range(3)) + list(range(2)))
+print(list(range(4)) == [0, 1, 2, 3])
+print(list(range(4)) < list(range(3)))
+print(len(list(range(7))))
+print(list(range(-3)))
@@ -0,0 +1,11 @@
+def f(x):
+    return x + 1
+def g(l):
+    s = 0
+    for x in l:
+        s = s + f(x)
+    return s
+def f(x):
+    return x * 10
+print(g([1, 2, 3]))
+print(f(len([0, 0])))
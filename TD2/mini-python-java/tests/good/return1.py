@@ -0,0 +1,15 @@
+def find(l, x):
+    for i in range(len(l)):
+        if l[i] == x:
+            return i
+        print(i)
+    return None
+def nested(n):
+    for i in range(n):
+        for j in range(n):
+            if i * j == 6:
+                return [i, j]
+print(find([3, 1, 4, 1, 5], 4))
+print(find([3, 1], 5))
+print(nested(5))
+print(nested(2))
@@ -0,0 +1,12 @@
+def add(a, b):
+    return a + b
+def lt(a, b):
+    return a < b
+for i in range(5):
+    print(add(i, 1))
+print(add("foo", "bar"))
+print(add([1], [2, 3]))
+for i in range(5):
+    print(lt("a", "b"))
+print(lt(1, 2))
+print(lt([1, 2], [1]))
@@ -0,0 +1,13 @@
+def sum(n, acc):
+    if n == 0:
+        return acc
+    return sum(n - 1, acc + n)
+def count(l, i, n):
+    if i == len(l):
+        return n
+    if l[i]:
+        return count(l, i + 1, n + 1)
+    else:
+        return count(l, i + 1, n)
+print(sum(1000000, 0))
+print(count([1, 0, 2, 0, 3], 0, 0))
@@ -0,0 +1,11 @@
+def sq(x):
+    return x * x
+def pair(x):
+    return [x, x]
+def first(l):
+    return l[0]
+for x in [1, 2, 3, 4, 1, 5, 1, 2]:
+    print(sq(x))
+p = pair(3)
+print(first(p))
+print(first(pair(3)))
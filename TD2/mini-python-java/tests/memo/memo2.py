@@ -0,0 +1,7 @@
+def inc(x):
+    return x + 1
+n = 0
+for x in [1, 2, 1]:
+    print(inc(x))
+    n = n + 1
+print(inc(n) // (n - 3))